@@ -1,5 +1,13 @@
 package com.blasphemy;
 
+import com.blasphemy.combat.AoeEngine;
+import com.blasphemy.combat.CleaveEngine;
+import com.blasphemy.combat.UndeadTypes;
+import com.blasphemy.combat.effect.WeaponEffects;
+import com.blasphemy.command.BlasphemyCommands;
+import com.blasphemy.compat.LeylinesCompat;
+import com.blasphemy.config.ConfigSync;
+import com.blasphemy.config.ConfigWatcher;
 import com.blasphemy.config.ModConfig;
 import com.blasphemy.portal.PortalDebugTool;
 import com.blasphemy.portal.PortalFrameValidator;
@@ -7,6 +15,9 @@ import com.blasphemy.registry.EnchantmentRegistry;
 import com.blasphemy.registry.ItemGroupRegistry;
 import com.blasphemy.registry.ItemRegistry;
 import com.blasphemy.util.BlockEventListener;
+import com.blasphemy.util.CooldownService;
+import com.blasphemy.util.DaylightRepairService;
+import com.blasphemy.util.DebugTrace;
 import net.fabricmc.api.ModInitializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,6 +42,19 @@ public class Blasphemy implements ModInitializer {
 		
 		// 加载配置
 		ModConfig.load();
+		ConfigWatcher.start();
+		ConfigSync.init();
+		
+		// 初始化诊断追踪
+		DebugTrace.init();
+		
+		// 技能冷却、范围技能、数据驱动的武器效果与白天修复
+		CooldownService.init();
+		AoeEngine.init();
+		CleaveEngine.init();
+		WeaponEffects.init();
+		UndeadTypes.init();
+		DaylightRepairService.init();
 		
 		// 注册物品组（必须在物品注册前完成）
 		LOGGER.info("注册物品组...");
@@ -48,13 +72,25 @@ public class Blasphemy implements ModInitializer {
 		LOGGER.info("注册传送门调试工具...");
 		PortalDebugTool.register();
 		
-		// 初始化传送门框架验证器
-		LOGGER.info("初始化传送门框架验证器...");
-		PortalFrameValidator.init();
+		// 传送门功能关闭时，相关 Mixin 在引导阶段就未织入，这里也不注册任何传送门回调
+		if (BlasphemyMixinPlugin.isPortalEnabled()) {
+			// 初始化传送门框架验证器
+			LOGGER.info("初始化传送门框架验证器...");
+			PortalFrameValidator.init();
+			
+			// 注册事件监听器
+			LOGGER.info("注册方块事件监听器...");
+			BlockEventListener.init();
+		} else {
+			LOGGER.info("传送门功能已关闭，跳过传送门子系统，重新启用需要重启");
+		}
+		
+		// 模组兼容
+		LeylinesCompat.init();
 		
-		// 注册事件监听器
-		LOGGER.info("注册方块事件监听器...");
-		BlockEventListener.init();
+		// 注册管理命令
+		LOGGER.info("注册管理命令...");
+		BlasphemyCommands.register();
 		
 		// 完成初始化
 		LOGGER.info("粵神模组初始化完成!");
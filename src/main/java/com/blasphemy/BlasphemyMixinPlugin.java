@@ -0,0 +1,94 @@
+package com.blasphemy;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import net.fabricmc.loader.api.FabricLoader;
+import org.objectweb.asm.tree.ClassNode;
+import org.spongepowered.asm.mixin.extensibility.IMixinConfigPlugin;
+import org.spongepowered.asm.mixin.extensibility.IMixinInfo;
+
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Mixin 配置插件
+ * 在引导阶段读取配置文件，传送门功能关闭时不织入任何传送门相关的 Mixin。
+ * 此时模组和游戏类都尚未加载，只能直接解析 JSON，不能使用 ModConfig。
+ * 结果在本次运行中固定，重新启用传送门功能需要重启。
+ */
+public class BlasphemyMixinPlugin implements IMixinConfigPlugin {
+
+    // 只在传送门功能开启时织入的 Mixin
+    private static final Set<String> PORTAL_MIXINS = Set.of(
+            "com.blasphemy.mixin.PortalMixin",
+            "com.blasphemy.mixin.FireChargeMixin",
+            "com.blasphemy.mixin.ServerWorldMixin");
+
+    private static boolean portalEnabled = true;
+
+    /**
+     * 本次运行是否加载了传送门子系统
+     */
+    public static boolean isPortalEnabled() {
+        return portalEnabled;
+    }
+
+    @Override
+    public void onLoad(String mixinPackage) {
+        portalEnabled = readPortalEnabled(FabricLoader.getInstance().getConfigDir().resolve("blasphemy.json"));
+    }
+
+    /**
+     * 读取 portalConfig.enabled，文件不存在或无法解析时按默认值开启
+     */
+    private static boolean readPortalEnabled(Path file) {
+        if (!Files.exists(file)) {
+            return true;
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            JsonElement root = JsonParser.parseReader(reader);
+            if (!root.isJsonObject()) {
+                return true;
+            }
+            JsonObject portalConfig = root.getAsJsonObject().getAsJsonObject("portalConfig");
+            if (portalConfig == null || !portalConfig.has("enabled")) {
+                return true;
+            }
+            return portalConfig.get("enabled").getAsBoolean();
+        } catch (Exception e) {
+            return true;
+        }
+    }
+
+    @Override
+    public String getRefMapperConfig() {
+        return null;
+    }
+
+    @Override
+    public boolean shouldApplyMixin(String targetClassName, String mixinClassName) {
+        return portalEnabled || !PORTAL_MIXINS.contains(mixinClassName);
+    }
+
+    @Override
+    public void acceptTargets(Set<String> myTargets, Set<String> otherTargets) {
+    }
+
+    @Override
+    public List<String> getMixins() {
+        return null;
+    }
+
+    @Override
+    public void preApply(String targetClassName, ClassNode targetClass, String mixinClassName, IMixinInfo mixinInfo) {
+    }
+
+    @Override
+    public void postApply(String targetClassName, ClassNode targetClass, String mixinClassName, IMixinInfo mixinInfo) {
+    }
+}
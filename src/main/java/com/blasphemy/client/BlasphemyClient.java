@@ -1,9 +1,17 @@
 package com.blasphemy.client;
 
 import com.blasphemy.Blasphemy;
+import com.blasphemy.config.ConfigWatcher;
+import com.blasphemy.items.BaseSword;
 import net.fabricmc.api.ClientModInitializer;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
+import net.fabricmc.fabric.api.resource.ResourceManagerHelper;
+import net.fabricmc.fabric.api.resource.SimpleSynchronousResourceReloadListener;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.resource.ResourceManager;
+import net.minecraft.resource.ResourceType;
+import net.minecraft.util.Identifier;
 
 /** 客户端初始化类 */
 @Environment(EnvType.CLIENT)
@@ -15,6 +23,29 @@ public class BlasphemyClient implements ClientModInitializer {
 
         // 这里只保留武器和附魔相关的客户端功能
 
+        // 接收服务端配置同步
+        ClientConfigSync.init();
+
+        // 没有运行中的服务器时，配置热重载在客户端主线程上发布
+        ConfigWatcher.setClientExecutor(MinecraftClient.getInstance());
+
+        // 接收武器特效
+        ClientWeaponVfx.init();
+
+        // 切换语言或重新加载资源包后重建剑的提示行缓存
+        ResourceManagerHelper.get(ResourceType.CLIENT_RESOURCES).registerReloadListener(
+                new SimpleSynchronousResourceReloadListener() {
+                    @Override
+                    public Identifier getFabricId() {
+                        return new Identifier(Blasphemy.MOD_ID, "tooltips");
+                    }
+
+                    @Override
+                    public void reload(ResourceManager manager) {
+                        BaseSword.invalidateTooltips();
+                    }
+                });
+
         Blasphemy.LOGGER.info("客户端初始化完成！");
     }
 } 
\ No newline at end of file
@@ -0,0 +1,69 @@
+package com.blasphemy.client;
+
+import com.blasphemy.Blasphemy;
+import com.blasphemy.config.ConfigSync;
+import com.blasphemy.config.ModConfig;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.network.PacketByteBuf;
+
+/**
+ * 客户端配置同步
+ * 接收服务端下发的完整配置和增量字段，连接期间客户端只使用服务端配置。
+ * 单人游戏和局域网主机与服务端共用同一份配置，不需要同步。
+ */
+@Environment(EnvType.CLIENT)
+public class ClientConfigSync {
+
+    /**
+     * 注册数据包接收器
+     */
+    public static void init() {
+        ClientPlayNetworking.registerGlobalReceiver(ConfigSync.FULL_PACKET, (client, handler, buf, sender) -> {
+            if (client.isIntegratedServerRunning()) {
+                return;
+            }
+            // 以本地配置为底，未同步的选项保留本地值
+            ModConfig config = ModConfig.copy(ModConfig.getConfig());
+            if (ConfigSync.readFull(buf, config)) {
+                client.execute(() -> apply(config));
+            }
+        });
+
+        ClientPlayNetworking.registerGlobalReceiver(ConfigSync.DELTA_PACKET, (client, handler, buf, sender) -> {
+            if (client.isIntegratedServerRunning()) {
+                return;
+            }
+            // 在网络线程上读出字段，再到客户端线程上合并，保证增量按顺序应用在最新的配置上
+            PacketByteBuf copy = new PacketByteBuf(buf.copy());
+            client.execute(() -> applyDelta(copy));
+        });
+
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> client.execute(ModConfig::clearRemote));
+    }
+
+    private static void applyDelta(PacketByteBuf buf) {
+        try {
+            ModConfig base = ModConfig.getRemoteConfig();
+            if (base == null) {
+                Blasphemy.LOGGER.warn("尚未收到完整配置，忽略配置增量");
+                return;
+            }
+            ModConfig config = ModConfig.copy(base);
+            if (ConfigSync.readDelta(buf, config)) {
+                apply(config);
+            }
+        } finally {
+            buf.release();
+        }
+    }
+
+    private static void apply(ModConfig config) {
+        if (ModConfig.applyRemote(config)) {
+            Blasphemy.LOGGER.info("已应用服务端配置");
+        }
+    }
+}
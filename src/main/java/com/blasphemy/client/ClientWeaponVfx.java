@@ -0,0 +1,113 @@
+package com.blasphemy.client;
+
+import com.blasphemy.combat.WeaponVfx;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.particle.ParticleEffect;
+import net.minecraft.particle.ParticleTypes;
+import net.minecraft.sound.SoundCategory;
+import net.minecraft.sound.SoundEvent;
+import net.minecraft.sound.SoundEvents;
+import net.minecraft.util.math.random.Random;
+
+/**
+ * 客户端武器特效
+ * 根据服务端发送的特效编号在本地生成粒子和音效
+ */
+@Environment(EnvType.CLIENT)
+public class ClientWeaponVfx {
+
+    // 天使剑命中光环的粒子数量和半径
+    private static final int IMPACT_RING_POINTS = 16;
+    private static final double IMPACT_RING_RADIUS = 0.7;
+
+    /**
+     * 注册数据包接收器
+     */
+    public static void init() {
+        ClientPlayNetworking.registerGlobalReceiver(WeaponVfx.PACKET, (client, handler, buf, sender) -> {
+            WeaponVfx.Effect effect = WeaponVfx.Effect.byId(buf.readUnsignedByte());
+            double x = buf.readDouble();
+            double y = buf.readDouble();
+            double z = buf.readDouble();
+            float radius = buf.readFloat();
+            int count = buf.readVarInt();
+            if (effect == null) {
+                return;
+            }
+            client.execute(() -> {
+                if (client.world != null) {
+                    play(client.world, effect, x, y, z, radius, count);
+                }
+            });
+        });
+    }
+
+    private static void play(ClientWorld world, WeaponVfx.Effect effect, double x, double y, double z,
+            float radius, int count) {
+        switch (effect) {
+            case SERAPHIM_BURST -> {
+                sound(world, x, y, z, SoundEvents.ENTITY_BLAZE_SHOOT, 1.0f, 0.8f);
+                Random random = world.getRandom();
+                for (int i = 0; i < count; i++) {
+                    double angle = random.nextDouble() * Math.PI * 2;
+                    double distance = random.nextDouble() * radius;
+                    spread(world, ParticleTypes.SOUL_FIRE_FLAME,
+                            x + Math.cos(angle) * distance, y + 0.5, z + Math.sin(angle) * distance,
+                            1, 0, 0, 0, 0.05);
+                }
+            }
+            case SERAPHIM_SWEEP -> sound(world, x, y, z, SoundEvents.ENTITY_PLAYER_ATTACK_SWEEP, 1.0f, 1.0f);
+            case SERAPHIM_IMPACT -> {
+                world.addParticle(ParticleTypes.FLASH, x, y + 1.0, z, 0, 0, 0);
+                for (int i = 0; i < IMPACT_RING_POINTS; i++) {
+                    double angle = (Math.PI * 2.0 * i) / IMPACT_RING_POINTS;
+                    world.addParticle(ParticleTypes.END_ROD,
+                            x + Math.cos(angle) * IMPACT_RING_RADIUS, y + 1.0, z + Math.sin(angle) * IMPACT_RING_RADIUS,
+                            0, 0, 0);
+                }
+            }
+            case UNDEAD_SMITE -> {
+                sound(world, x, y, z, SoundEvents.ENTITY_ZOMBIE_HURT, 1.0f, 1.5f);
+                spread(world, ParticleTypes.SOUL_FIRE_FLAME, x, y + 1.0, z, 15, 0.3, 0.5, 0.3, 0.05);
+            }
+            case RAPIDS_EXECUTE -> {
+                sound(world, x, y, z, SoundEvents.ENTITY_PLAYER_ATTACK_CRIT, 1.0f, 1.2f);
+                spread(world, ParticleTypes.SWEEP_ATTACK, x, y + 1.0, z, 10, 0.5, 0.5, 0.5, 0.1);
+            }
+            case MURAMASA_PIERCE -> {
+                sound(world, x, y, z, SoundEvents.ITEM_SHIELD_BREAK, 0.8f, 1.2f);
+                spread(world, ParticleTypes.CRIT, x, y + 1.0, z, 15, 0.5, 0.5, 0.5, 0.1);
+            }
+            case MURAMASA_EXECUTE -> {
+                sound(world, x, y, z, SoundEvents.ENTITY_WITHER_BREAK_BLOCK, 0.5f, 1.5f);
+                spread(world, ParticleTypes.SOUL, x, y + 1.0, z, 20, 0.5, 0.5, 0.5, 0.05);
+            }
+            case CLEAVE_SWEEP -> spread(world, ParticleTypes.SWEEP_ATTACK, x, y + 0.5, z, 5, 0.2, 0.2, 0.2, 0);
+        }
+    }
+
+    private static void sound(ClientWorld world, double x, double y, double z, SoundEvent sound,
+            float volume, float pitch) {
+        world.playSound(x, y, z, sound, SoundCategory.PLAYERS, volume, pitch, false);
+    }
+
+    /**
+     * 与原版 spawnParticles 相同的分布：位置和速度按高斯分布随机偏移
+     */
+    private static void spread(ClientWorld world, ParticleEffect particle, double x, double y, double z,
+            int count, double deltaX, double deltaY, double deltaZ, double speed) {
+        Random random = world.getRandom();
+        for (int i = 0; i < count; i++) {
+            world.addParticle(particle,
+                    x + random.nextGaussian() * deltaX,
+                    y + random.nextGaussian() * deltaY,
+                    z + random.nextGaussian() * deltaZ,
+                    random.nextGaussian() * speed,
+                    random.nextGaussian() * speed,
+                    random.nextGaussian() * speed);
+        }
+    }
+}
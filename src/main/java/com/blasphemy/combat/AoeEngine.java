@@ -0,0 +1,161 @@
+package com.blasphemy.combat;
+
+import com.blasphemy.config.ModConfig;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.World;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * 范围技能引擎
+ * 所有范围技能共用的目标选取与分帧执行：
+ * 只做一次实体查询，按真实球形距离过滤，由近到远排序后截取目标上限；
+ * 命中处理每刻有统一的预算，超出预算的目标顺延到之后的刻处理。
+ * 只在服务器线程上使用。
+ */
+public class AoeEngine {
+
+    // 等待处理的命中任务，按提交顺序执行
+    private static final ArrayDeque<Job> PENDING = new ArrayDeque<>();
+
+    // 本刻剩余的处理预算
+    private static int budget;
+
+    /**
+     * 注册刻事件
+     */
+    public static void init() {
+        ServerTickEvents.START_SERVER_TICK.register(server -> {
+            budget = ModConfig.snapshot().aoe.targetsPerTick;
+            drain();
+        });
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> PENDING.clear());
+    }
+
+    /**
+     * 选取范围内的目标
+     * 先按球形距离粗筛并排序，再按距离顺序执行过滤条件，直到达到目标上限，
+     * 因此视线检测等开销较大的条件只会对最终可能命中的实体执行。
+     *
+     * @param center 范围中心
+     * @param radius 半径
+     * @param filter 目标过滤条件
+     * @return 由近到远排列的目标
+     */
+    public static List<LivingEntity> query(World world, Vec3d center, double radius,
+            Predicate<? super LivingEntity> filter) {
+        double radiusSquared = radius * radius;
+        List<LivingEntity> found = world.getEntitiesByClass(LivingEntity.class, new Box(
+                center.x - radius, center.y - radius, center.z - radius,
+                center.x + radius, center.y + radius, center.z + radius),
+                entity -> entity.isAlive() && entity.squaredDistanceTo(center) <= radiusSquared);
+        if (found.isEmpty()) {
+            return found;
+        }
+
+        // 距离只计算一次
+        Candidate[] candidates = new Candidate[found.size()];
+        for (int i = 0; i < candidates.length; i++) {
+            LivingEntity entity = found.get(i);
+            candidates[i] = new Candidate(entity, entity.squaredDistanceTo(center));
+        }
+        Arrays.sort(candidates, Comparator.comparingDouble(candidate -> candidate.distanceSquared));
+
+        int maxTargets = ModConfig.snapshot().aoe.maxTargets;
+        List<LivingEntity> targets = new ArrayList<>(Math.min(candidates.length, maxTargets));
+        for (Candidate candidate : candidates) {
+            if (filter.test(candidate.entity)) {
+                targets.add(candidate.entity);
+                if (targets.size() >= maxTargets) {
+                    break;
+                }
+            }
+        }
+        return targets;
+    }
+
+    /**
+     * 对目标执行命中处理
+     * 本刻预算足够时立即执行，不足的部分在之后的刻继续；
+     * 顺延执行时跳过已经死亡或被移除的目标。
+     *
+     * @param targets 目标，通常为 query 的结果
+     * @param action  对单个目标的处理
+     */
+    public static void dispatch(List<LivingEntity> targets, Consumer<LivingEntity> action) {
+        if (targets.isEmpty()) {
+            return;
+        }
+        Job job = new Job(targets, action);
+        // 已有排队的任务时不插队
+        if (PENDING.isEmpty()) {
+            job.run();
+            if (job.isDone()) {
+                return;
+            }
+        }
+        PENDING.add(job);
+    }
+
+    /**
+     * 在本刻预算内处理排队的任务
+     */
+    private static void drain() {
+        while (budget > 0 && !PENDING.isEmpty()) {
+            Job job = PENDING.peek();
+            job.run();
+            if (!job.isDone()) {
+                return;
+            }
+            PENDING.poll();
+        }
+    }
+
+    private static final class Candidate {
+        private final LivingEntity entity;
+        private final double distanceSquared;
+
+        private Candidate(LivingEntity entity, double distanceSquared) {
+            this.entity = entity;
+            this.distanceSquared = distanceSquared;
+        }
+    }
+
+    /**
+     * 一次范围技能的命中任务
+     */
+    private static final class Job {
+        private final List<LivingEntity> targets;
+        private final Consumer<LivingEntity> action;
+        private int next;
+
+        private Job(List<LivingEntity> targets, Consumer<LivingEntity> action) {
+            this.targets = targets;
+            this.action = action;
+        }
+
+        void run() {
+            while (budget > 0 && next < targets.size()) {
+                LivingEntity target = targets.get(next++);
+                if (target.isAlive() && !target.isRemoved()) {
+                    action.accept(target);
+                    budget--;
+                }
+            }
+        }
+
+        boolean isDone() {
+            return next >= targets.size();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.blasphemy.combat;
+
+import com.blasphemy.config.ConfigSnapshot;
+import com.blasphemy.config.ModConfig;
+import it.unimi.dsi.fastutil.longs.Long2BooleanOpenHashMap;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.entity.attribute.EntityAttributes;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.text.Text;
+import net.minecraft.util.Formatting;
+import net.minecraft.util.math.Vec3d;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 群体斩击引擎
+ * 同一刻内同一玩家的多次群体斩击触发（横扫、高攻速）合并为一次，在刻末统一结算：
+ * 以每个被直接命中的目标为中心选取周围目标，同一目标只受一次斩击，总数受范围技能目标上限约束；
+ * 玩家到目标的视线检测结果在本刻内复用，结算后只发送一次动作栏消息。
+ * 只在服务器线程上使用。
+ */
+public class CleaveEngine {
+
+    // 本刻待结算的触发，按玩家合并
+    private static final Map<PlayerEntity, Trigger> PENDING = new LinkedHashMap<>();
+    // 本刻的视线检测结果，键为玩家和目标的实体ID
+    private static final Long2BooleanOpenHashMap LINE_OF_SIGHT = new Long2BooleanOpenHashMap();
+
+    /**
+     * 注册刻事件
+     */
+    public static void init() {
+        ServerTickEvents.END_SERVER_TICK.register(server -> {
+            flush();
+            LINE_OF_SIGHT.clear();
+        });
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
+            PENDING.clear();
+            LINE_OF_SIGHT.clear();
+        });
+    }
+
+    /**
+     * 记录一次群体斩击触发，在本刻结束时结算
+     *
+     * @param target 被直接命中的目标，作为斩击中心且不会再受斩击伤害
+     * @param level  附魔等级，同一刻多次触发时取最高等级
+     */
+    public static void trigger(PlayerEntity player, LivingEntity target, int level) {
+        Trigger trigger = PENDING.computeIfAbsent(player, key -> new Trigger());
+        trigger.level = Math.max(trigger.level, level);
+        if (trigger.excluded.add(target)) {
+            trigger.centers.add(target.getPos());
+        }
+    }
+
+    /**
+     * 结算本刻的全部触发
+     */
+    private static void flush() {
+        if (PENDING.isEmpty()) {
+            return;
+        }
+        // 结算中造成的伤害可能再次触发，先取出本刻的批次
+        List<Map.Entry<PlayerEntity, Trigger>> batch = new ArrayList<>(PENDING.entrySet());
+        PENDING.clear();
+
+        ConfigSnapshot config = ModConfig.snapshot();
+        for (Map.Entry<PlayerEntity, Trigger> entry : batch) {
+            PlayerEntity player = entry.getKey();
+            if (player.isAlive() && !player.isRemoved()) {
+                apply(player, entry.getValue(), config);
+            }
+        }
+    }
+
+    private static void apply(PlayerEntity player, Trigger trigger, ConfigSnapshot config) {
+        // 获取范围和伤害
+        double range = config.cleave.attackRange;
+        double attackDamage = player.getAttributeValue(EntityAttributes.GENERIC_ATTACK_DAMAGE);
+        float cleaveDamage = (float) (attackDamage * config.cleave.multiplier(trigger.level));
+
+        // 获取各中心周围可见的生物，已选中或被直接命中的不重复选取
+        int maxTargets = config.aoe.maxTargets;
+        List<LivingEntity> targets = new ArrayList<>();
+        for (Vec3d center : trigger.centers) {
+            List<LivingEntity> found = AoeEngine.query(player.getWorld(), center, range,
+                    entity -> entity != player && !trigger.excluded.contains(entity) && canSee(player, entity));
+            for (LivingEntity entity : found) {
+                trigger.excluded.add(entity);
+                targets.add(entity);
+                if (targets.size() >= maxTargets) {
+                    break;
+                }
+            }
+            if (targets.size() >= maxTargets) {
+                break;
+            }
+        }
+        if (targets.isEmpty()) {
+            return;
+        }
+
+        // 应用效果到周围实体
+        AoeEngine.dispatch(targets, livingEntity -> {
+            livingEntity.damage(player.getDamageSources().playerAttack(player), cleaveDamage);
+
+            // 粒子效果
+            WeaponVfx.play(livingEntity, WeaponVfx.Effect.CLEAVE_SWEEP);
+        });
+
+        // 通知玩家
+        player.sendMessage(
+                Text.translatable("message.blasphemy.cleave.activate", targets.size())
+                        .formatted(Formatting.RED),
+                true
+        );
+    }
+
+    /**
+     * 玩家能否看到目标，同一刻内相同的玩家和目标只做一次射线检测
+     */
+    private static boolean canSee(PlayerEntity player, LivingEntity target) {
+        long key = ((long) player.getId() << 32) | (target.getId() & 0xFFFFFFFFL);
+        if (LINE_OF_SIGHT.containsKey(key)) {
+            return LINE_OF_SIGHT.get(key);
+        }
+        boolean visible = player.canSee(target);
+        LINE_OF_SIGHT.put(key, visible);
+        return visible;
+    }
+
+    /**
+     * 一名玩家在本刻内合并后的触发
+     */
+    private static final class Trigger {
+        private final List<Vec3d> centers = new ArrayList<>(2);
+        // 被直接命中或已被选为斩击目标的实体
+        private final Set<LivingEntity> excluded = Collections.newSetFromMap(new IdentityHashMap<>());
+        private int level;
+    }
+}
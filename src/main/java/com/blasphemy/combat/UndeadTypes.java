@@ -0,0 +1,56 @@
+package com.blasphemy.combat;
+
+import com.blasphemy.Blasphemy;
+import com.blasphemy.config.ModConfig;
+import net.fabricmc.fabric.api.event.lifecycle.v1.CommonLifecycleEvents;
+import net.minecraft.entity.EntityGroup;
+import net.minecraft.entity.EntityType;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.registry.Registries;
+import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.registry.tag.TagKey;
+
+import java.util.BitSet;
+
+/**
+ * 亡灵实体类型判定
+ * 配置中的 undeadEntityTags 在配置或数据包标签重新加载时展开为一个
+ * 以实体类型数字ID为下标的位集合，命中时只需一次查表，其他模组的亡灵生物也能获得加成。
+ * 原版亡灵通过 EntityGroup.UNDEAD 判定，不依赖标签。
+ */
+public class UndeadTypes {
+
+    // 属于配置标签的实体类型，重新加载时整体替换
+    private static volatile BitSet types = new BitSet();
+
+    /**
+     * 注册标签加载和配置重新加载事件
+     */
+    public static void init() {
+        CommonLifecycleEvents.TAGS_LOADED.register((registries, client) -> rebuild());
+        ModConfig.addReloadListener(UndeadTypes::rebuild);
+    }
+
+    /**
+     * 目标是否为亡灵
+     */
+    public static boolean isUndead(LivingEntity entity) {
+        return entity.getGroup() == EntityGroup.UNDEAD
+                || types.get(Registries.ENTITY_TYPE.getRawId(entity.getType()));
+    }
+
+    /**
+     * 按当前配置重新展开标签
+     * 标签尚未加载或不存在时对应的条目为空
+     */
+    private static void rebuild() {
+        BitSet result = new BitSet();
+        for (TagKey<EntityType<?>> tag : ModConfig.snapshot().seraphim.undeadEntityTags) {
+            for (RegistryEntry<EntityType<?>> entry : Registries.ENTITY_TYPE.iterateEntries(tag)) {
+                result.set(Registries.ENTITY_TYPE.getRawId(entry.value()));
+            }
+        }
+        types = result;
+        Blasphemy.LOGGER.debug("亡灵标签共包含 {} 种实体类型", result.cardinality());
+    }
+}
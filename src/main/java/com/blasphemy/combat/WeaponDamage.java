@@ -0,0 +1,152 @@
+package com.blasphemy.combat;
+
+import com.blasphemy.combat.effect.HitEffect;
+import com.blasphemy.combat.effect.WeaponEffects;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.item.ItemStack;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 武器伤害管线
+ * 玩家或手持武器的生物近战命中时，依次执行手持武器编译后的命中效果（见 WeaponEffects），
+ * 把各项额外伤害（最大生命值百分比、护甲穿透、亡灵加成、斩杀）
+ * 汇总到同一次攻击伤害中，只经过一次受伤流程，不会被无敌帧吞掉。
+ * 音效、消息等反馈只在伤害实际生效后执行。
+ * 由 PlayerEntityMixin 和 MobEntityMixin 在原版攻击伤害调用处接入，只在服务端生效。
+ */
+public class WeaponDamage {
+
+    // 斩杀时的伤害下限，足够大以确保斩杀
+    public static final float EXECUTE_DAMAGE = 100.0f;
+
+    /**
+     * 实际造成伤害的操作，返回伤害是否生效
+     */
+    @FunctionalInterface
+    public interface Damager {
+        boolean damage(float amount);
+    }
+
+    /**
+     * 汇总手持武器的额外伤害后造成一次伤害
+     *
+     * @param amount  原版计算出的攻击伤害
+     * @param damager 原版的伤害调用
+     * @return 伤害是否生效
+     */
+    public static boolean apply(LivingEntity attacker, Entity target, float amount, Damager damager) {
+        if (attacker.getWorld().isClient || !(target instanceof LivingEntity livingTarget)) {
+            return damager.damage(amount);
+        }
+        ItemStack stack = attacker.getMainHandStack();
+        WeaponEffects.Compiled weapon = WeaponEffects.get(stack.getItem());
+        if (weapon == null || weapon.onHit.length == 0) {
+            return damager.damage(amount);
+        }
+
+        Hit hit = new Hit(attacker, livingTarget, stack, amount);
+        for (HitEffect effect : weapon.onHit) {
+            effect.apply(hit);
+        }
+
+        boolean landed = damager.damage(hit.getTotal());
+        if (landed) {
+            hit.runFeedback();
+        }
+        return landed;
+    }
+
+    /**
+     * 一次近战命中
+     */
+    public static final class Hit {
+        private final LivingEntity attacker;
+        private final LivingEntity target;
+        private final ItemStack stack;
+        private final float baseAmount;
+        // 命中前的生命值比例
+        private final float healthRatio;
+        private float bonus;
+        private boolean executed;
+        private List<Runnable> feedback;
+
+        private Hit(LivingEntity attacker, LivingEntity target, ItemStack stack, float baseAmount) {
+            this.attacker = attacker;
+            this.target = target;
+            this.stack = stack;
+            this.baseAmount = baseAmount;
+            this.healthRatio = target.getHealth() / target.getMaxHealth();
+        }
+
+        /**
+         * 攻击者，可能是玩家或手持武器的生物
+         */
+        public LivingEntity getAttacker() {
+            return attacker;
+        }
+
+        public LivingEntity getTarget() {
+            return target;
+        }
+
+        public ItemStack getStack() {
+            return stack;
+        }
+
+        /**
+         * 命中前目标的生命值比例
+         */
+        public float getHealthRatio() {
+            return healthRatio;
+        }
+
+        /**
+         * 增加额外伤害
+         */
+        public void addBonus(float amount) {
+            if (amount > 0) {
+                bonus += amount;
+            }
+        }
+
+        /**
+         * 标记为斩杀，伤害至少为 EXECUTE_DAMAGE
+         */
+        public void execute() {
+            executed = true;
+        }
+
+        public boolean isExecuted() {
+            return executed;
+        }
+
+        /**
+         * 添加伤害生效后执行的反馈，如消息和特效
+         */
+        public void onLanded(Runnable action) {
+            if (feedback == null) {
+                feedback = new ArrayList<>(2);
+            }
+            feedback.add(action);
+        }
+
+        /**
+         * 最终伤害
+         */
+        public float getTotal() {
+            float total = baseAmount + bonus;
+            return executed ? Math.max(total, EXECUTE_DAMAGE) : total;
+        }
+
+        private void runFeedback() {
+            if (feedback != null) {
+                for (Runnable action : feedback) {
+                    action.run();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.blasphemy.combat;
+
+import com.blasphemy.Blasphemy;
+import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
+import net.fabricmc.fabric.api.networking.v1.PlayerLookup;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.minecraft.entity.Entity;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.network.listener.ClientPlayPacketListener;
+import net.minecraft.network.packet.Packet;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.Vec3d;
+
+import java.util.Collection;
+
+/**
+ * 武器特效同步
+ * 一次特效只发送一个数据包：特效编号、位置和少量参数，
+ * 粒子和音效由客户端根据特效编号在本地生成，代替逐个粒子的 spawnParticles 和 playSound。
+ */
+public class WeaponVfx {
+
+    public static final Identifier PACKET = new Identifier(Blasphemy.MOD_ID, "weapon_vfx");
+
+    // 与原版粒子同步距离一致
+    private static final double RANGE = 32.0;
+
+    /**
+     * 特效种类，序号即数据包中的编号，只能在末尾追加
+     */
+    public enum Effect {
+        SERAPHIM_BURST,     // 炽天使技能爆发：火焰音效，参数为半径和粒子数量
+        SERAPHIM_SWEEP,     // 天使剑技能释放：横扫音效
+        SERAPHIM_IMPACT,    // 天使剑命中：闪光和光环
+        UNDEAD_SMITE,       // 炽天使对亡灵的额外伤害
+        RAPIDS_EXECUTE,     // 激流之剑斩杀
+        MURAMASA_PIERCE,    // 妖刀村正护甲穿透
+        MURAMASA_EXECUTE,   // 妖刀村正斩杀
+        CLEAVE_SWEEP;       // 群体斩击命中
+
+        private static final Effect[] VALUES = values();
+
+        /**
+         * 按编号查找特效，编号无效时返回null
+         */
+        public static Effect byId(int id) {
+            return id >= 0 && id < VALUES.length ? VALUES[id] : null;
+        }
+    }
+
+    /**
+     * 在实体脚下位置播放特效
+     */
+    public static void play(Entity entity, Effect effect) {
+        if (entity.getWorld() instanceof ServerWorld world) {
+            play(world, effect, entity.getPos(), 0, 0);
+        }
+    }
+
+    /**
+     * 向附近的玩家发送特效
+     *
+     * @param radius 特效半径，不使用时为0
+     * @param count  粒子数量，不使用时为0
+     */
+    public static void play(ServerWorld world, Effect effect, Vec3d pos, float radius, int count) {
+        Collection<ServerPlayerEntity> players = PlayerLookup.around(world, pos, RANGE);
+        if (players.isEmpty()) {
+            return;
+        }
+
+        PacketByteBuf buf = PacketByteBufs.create();
+        buf.writeByte(effect.ordinal());
+        buf.writeDouble(pos.x);
+        buf.writeDouble(pos.y);
+        buf.writeDouble(pos.z);
+        buf.writeFloat(radius);
+        buf.writeVarInt(count);
+
+        // 只编码一次，附近玩家共用同一个数据包
+        Packet<ClientPlayPacketListener> packet = ServerPlayNetworking.createS2CPacket(PACKET, buf);
+        for (ServerPlayerEntity player : players) {
+            player.networkHandler.sendPacket(packet);
+        }
+    }
+}
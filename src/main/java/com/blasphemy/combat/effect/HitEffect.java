@@ -0,0 +1,15 @@
+package com.blasphemy.combat.effect;
+
+import com.blasphemy.combat.WeaponDamage;
+
+/**
+ * 编译后的命中效果
+ * 参数在编译时已全部解析，命中时只做判断和累加
+ */
+@FunctionalInterface
+public interface HitEffect {
+    /**
+     * 向本次命中添加额外伤害或反馈
+     */
+    void apply(WeaponDamage.Hit hit);
+}
@@ -0,0 +1,18 @@
+package com.blasphemy.combat.effect;
+
+import net.minecraft.item.ItemStack;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.ActionResult;
+
+/**
+ * 编译后的右键使用效果，只在服务端执行
+ */
+@FunctionalInterface
+public interface UseEffect {
+    /**
+     * 执行使用效果
+     *
+     * @return 未生效时返回 PASS，被冷却等条件阻止时返回 FAIL
+     */
+    ActionResult use(ServerPlayerEntity player, ItemStack stack);
+}
@@ -0,0 +1,350 @@
+package com.blasphemy.combat.effect;
+
+import com.blasphemy.Blasphemy;
+import com.blasphemy.combat.AoeEngine;
+import com.blasphemy.combat.UndeadTypes;
+import com.blasphemy.combat.WeaponDamage;
+import com.blasphemy.combat.WeaponVfx;
+import com.blasphemy.compat.LeylinesCompat;
+import com.blasphemy.config.ConfigSnapshot;
+import com.blasphemy.util.CooldownService;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonPrimitive;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.entity.attribute.EntityAttributes;
+import net.minecraft.entity.effect.StatusEffect;
+import net.minecraft.entity.effect.StatusEffectInstance;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.registry.Registries;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.text.Text;
+import net.minecraft.util.ActionResult;
+import net.minecraft.util.Formatting;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.Vec3d;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 武器效果组件类型
+ * 每种类型把 JSON 中的参数编译为一个效果处理器，常量在编译时解析完毕。
+ * 数值参数可以是数字、配置路径（如 "rapidsSword.executionChance"），
+ * 或由二者组成的数组（表示乘积）；引用配置的效果在配置重新加载后重新编译。
+ */
+public class WeaponEffectTypes {
+
+    private static final Map<String, Function<Params, HitEffect>> HIT_TYPES = new HashMap<>();
+    private static final Map<String, Function<Params, UseEffect>> USE_TYPES = new HashMap<>();
+
+    static {
+        HIT_TYPES.put("max_health_damage", WeaponEffectTypes::maxHealthDamage);
+        HIT_TYPES.put("armor_pierce", WeaponEffectTypes::armorPierce);
+        HIT_TYPES.put("undead_bonus", WeaponEffectTypes::undeadBonus);
+        HIT_TYPES.put("execute", WeaponEffectTypes::execute);
+        HIT_TYPES.put("status_effect", WeaponEffectTypes::statusEffect);
+
+        USE_TYPES.put("aoe_push", WeaponEffectTypes::aoePush);
+    }
+
+    /**
+     * 编译命中效果
+     *
+     * @return 效果在当前环境下不可用时返回null，例如引用的状态效果未注册
+     */
+    @Nullable
+    static HitEffect compileHit(Params params) {
+        return lookup(HIT_TYPES, params).apply(params);
+    }
+
+    /**
+     * 编译使用效果
+     */
+    @Nullable
+    static UseEffect compileUse(Params params) {
+        return lookup(USE_TYPES, params).apply(params);
+    }
+
+    private static <T> Function<Params, T> lookup(Map<String, Function<Params, T>> types, Params params) {
+        String type = params.string("type");
+        Function<Params, T> factory = type == null ? null : types.get(type);
+        if (factory == null) {
+            throw new JsonParseException("未知的效果类型：" + type);
+        }
+        return factory;
+    }
+
+    /**
+     * 按目标最大生命值比例追加伤害
+     */
+    private static HitEffect maxHealthDamage(Params params) {
+        float ratio = params.number("ratio");
+        return hit -> hit.addBonus(hit.getTarget().getMaxHealth() * ratio);
+    }
+
+    /**
+     * 目标护甲达到阈值时按护甲值追加伤害
+     */
+    private static HitEffect armorPierce(Params params) {
+        float threshold = params.number("threshold");
+        float perArmor = params.number("per_armor");
+        Feedback feedback = params.feedback();
+        return hit -> {
+            LivingEntity target = hit.getTarget();
+            double armor = target.getAttributeValue(EntityAttributes.GENERIC_ARMOR);
+            if (armor >= threshold) {
+                hit.addBonus((float) (armor * perArmor));
+                feedback.schedule(hit);
+            }
+        };
+    }
+
+    /**
+     * 对亡灵生物追加固定伤害，亡灵的判定见 UndeadTypes
+     */
+    private static HitEffect undeadBonus(Params params) {
+        float amount = params.number("amount");
+        Feedback feedback = params.feedback();
+        return hit -> {
+            if (UndeadTypes.isUndead(hit.getTarget())) {
+                hit.addBonus(amount);
+                feedback.schedule(hit);
+            }
+        };
+    }
+
+    /**
+     * 命中前生命值比例低于阈值时按几率斩杀
+     */
+    private static HitEffect execute(Params params) {
+        float threshold = params.number("threshold");
+        float chance = params.number("chance");
+        Feedback feedback = params.feedback();
+        return hit -> {
+            if (hit.getHealthRatio() <= threshold && hit.getTarget().getWorld().random.nextFloat() <= chance) {
+                hit.execute();
+                feedback.schedule(hit);
+            }
+        };
+    }
+
+    /**
+     * 命中生效后为目标添加状态效果
+     * 状态效果在编译时解析，未注册（如兼容模组未加载）时不生成处理器
+     */
+    @Nullable
+    private static HitEffect statusEffect(Params params) {
+        Identifier id = params.identifier("effect");
+        // 莱特兰的状态效果在模组未加载时直接跳过，不必查询注册表
+        if (LeylinesCompat.MOD_ID.equals(id.getNamespace()) && !LeylinesCompat.isLoaded()) {
+            Blasphemy.LOGGER.debug("莱特兰模组未加载，跳过 {} 的状态效果 {}", params.weaponId, id);
+            return null;
+        }
+        StatusEffect effect = Registries.STATUS_EFFECT.get(id);
+        if (effect == null) {
+            Blasphemy.LOGGER.debug("{} 的状态效果 {} 未注册，跳过", params.weaponId, id);
+            return null;
+        }
+        int duration = (int) params.number("duration");
+        int amplifier = (int) params.number("amplifier", 0);
+        return hit -> {
+            LivingEntity target = hit.getTarget();
+            hit.onLanded(() -> target.addStatusEffect(
+                    new StatusEffectInstance(effect, duration, amplifier, false, true, true)));
+        };
+    }
+
+    /**
+     * 以玩家为中心的范围伤害和击退，带技能冷却
+     */
+    private static UseEffect aoePush(Params params) {
+        float radius = params.number("radius");
+        float strength = params.number("strength");
+        float damage = params.number("damage");
+        int cooldownTicks = (int) params.number("cooldown", 0);
+        int useDelay = (int) params.number("use_delay", 20);
+        int particles = (int) params.number("particles", 0);
+        WeaponVfx.Effect vfx = params.vfx("vfx");
+        Text message = params.message("message");
+        String cooldownKey = params.string("cooldown_message");
+        Identifier cooldownId = params.has("cooldown_id") ? params.identifier("cooldown_id") : params.weaponId;
+
+        return (player, stack) -> {
+            // 检查并开始冷却
+            long remainingTicks = CooldownService.tryStart(player, cooldownId, cooldownTicks);
+            if (remainingTicks > 0) {
+                if (cooldownKey != null) {
+                    int remainingSeconds = (int) Math.ceil(remainingTicks / 20.0);
+                    player.sendMessage(Text.translatable(cooldownKey, remainingSeconds).formatted(Formatting.RED), true);
+                }
+                return ActionResult.FAIL;
+            }
+
+            ServerWorld world = player.getServerWorld();
+            Vec3d origin = player.getPos();
+            List<LivingEntity> targets = AoeEngine.query(world, origin, radius, entity -> entity != player);
+            if (!targets.isEmpty()) {
+                if (vfx != null) {
+                    WeaponVfx.play(world, vfx, origin, radius, particles);
+                }
+
+                AoeEngine.dispatch(targets, target -> {
+                    target.damage(target.getDamageSources().playerAttack(player), damage);
+
+                    // 击退效果
+                    Vec3d pushDirection = target.getPos().subtract(origin).normalize();
+                    target.setVelocity(pushDirection.x * strength, 0.5, pushDirection.z * strength);
+                    target.velocityModified = true;
+                });
+
+                if (message != null) {
+                    player.sendMessage(message, true);
+                }
+            }
+
+            // 短暂的操作冷却
+            if (useDelay > 0) {
+                player.getItemCooldownManager().set(stack.getItem(), useDelay);
+            }
+            return ActionResult.SUCCESS;
+        };
+    }
+
+    /**
+     * 效果生效后的消息和特效
+     */
+    private static final class Feedback {
+        @Nullable
+        private final Text message;
+        @Nullable
+        private final WeaponVfx.Effect vfx;
+
+        private Feedback(@Nullable Text message, @Nullable WeaponVfx.Effect vfx) {
+            this.message = message;
+            this.vfx = vfx;
+        }
+
+        void schedule(WeaponDamage.Hit hit) {
+            if (message == null && vfx == null) {
+                return;
+            }
+            LivingEntity target = hit.getTarget();
+            hit.onLanded(() -> {
+                if (message != null && hit.getAttacker() instanceof PlayerEntity player) {
+                    player.sendMessage(message, true);
+                }
+                if (vfx != null) {
+                    WeaponVfx.play(target, vfx);
+                }
+            });
+        }
+    }
+
+    /**
+     * 单个效果的参数
+     */
+    static final class Params {
+        private final JsonObject json;
+        private final ConfigSnapshot config;
+        final Identifier weaponId;
+
+        Params(JsonObject json, ConfigSnapshot config, Identifier weaponId) {
+            this.json = json;
+            this.config = config;
+            this.weaponId = weaponId;
+        }
+
+        boolean has(String name) {
+            return json.has(name);
+        }
+
+        float number(String name) {
+            JsonElement element = json.get(name);
+            if (element == null) {
+                throw new JsonParseException("缺少参数：" + name);
+            }
+            return (float) resolve(element);
+        }
+
+        float number(String name, float fallback) {
+            return json.has(name) ? number(name) : fallback;
+        }
+
+        /**
+         * 解析数值：数字、配置路径，或二者组成的数组的乘积
+         */
+        private double resolve(JsonElement element) {
+            if (element.isJsonArray()) {
+                double product = 1;
+                for (JsonElement factor : element.getAsJsonArray()) {
+                    product *= resolve(factor);
+                }
+                return product;
+            }
+            JsonPrimitive primitive = element.getAsJsonPrimitive();
+            if (primitive.isNumber()) {
+                return primitive.getAsDouble();
+            }
+            Double value = config.getNumber(primitive.getAsString());
+            if (value == null) {
+                throw new JsonParseException("未知的配置项：" + primitive.getAsString());
+            }
+            return value;
+        }
+
+        @Nullable
+        String string(String name) {
+            JsonElement element = json.get(name);
+            return element == null ? null : element.getAsString();
+        }
+
+        Identifier identifier(String name) {
+            String value = string(name);
+            Identifier id = value == null ? null : Identifier.tryParse(value);
+            if (id == null) {
+                throw new JsonParseException("参数 " + name + " 不是有效的ID：" + value);
+            }
+            return id;
+        }
+
+        @Nullable
+        WeaponVfx.Effect vfx(String name) {
+            String value = string(name);
+            if (value == null) {
+                return null;
+            }
+            try {
+                return WeaponVfx.Effect.valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new JsonParseException("未知的特效：" + value);
+            }
+        }
+
+        /**
+         * 翻译键消息，颜色由 color 参数指定
+         */
+        @Nullable
+        Text message(String name) {
+            String key = string(name);
+            if (key == null) {
+                return null;
+            }
+            String colorName = string("color");
+            Formatting color = colorName == null ? null : Formatting.byName(colorName);
+            if (colorName != null && color == null) {
+                throw new JsonParseException("未知的颜色：" + colorName);
+            }
+            return color == null ? Text.translatable(key) : Text.translatable(key).formatted(color);
+        }
+
+        Feedback feedback() {
+            return new Feedback(message("message"), vfx("vfx"));
+        }
+    }
+}
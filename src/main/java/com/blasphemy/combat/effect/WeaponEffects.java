@@ -0,0 +1,197 @@
+package com.blasphemy.combat.effect;
+
+import com.blasphemy.Blasphemy;
+import com.blasphemy.config.ConfigSnapshot;
+import com.blasphemy.config.ModConfig;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import net.fabricmc.fabric.api.event.player.UseItemCallback;
+import net.fabricmc.fabric.api.resource.ResourceManagerHelper;
+import net.fabricmc.fabric.api.resource.SimpleSynchronousResourceReloadListener;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.registry.Registries;
+import net.minecraft.resource.Resource;
+import net.minecraft.resource.ResourceManager;
+import net.minecraft.resource.ResourceType;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.ActionResult;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.TypedActionResult;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 数据驱动的武器效果
+ * 从数据包的 weapon_effects 目录读取效果定义，文件路径即物品ID，
+ * 例如 data/blasphemy/weapon_effects/seraphim_sword.json 对应 blasphemy:seraphim_sword：
+ * <pre>
+ * {
+ *   "on_hit": [ { "type": "execute", "threshold": 0.2, "chance": 0.3 } ],
+ *   "on_use": [ { "type": "aoe_push", "radius": 5, "strength": 1.5, "damage": 1 } ]
+ * }
+ * </pre>
+ * 数据包或配置重新加载时整体编译为每个物品一组效果处理器数组并替换发布，
+ * 命中和使用时只需按物品查表并依次执行。给任意已注册的物品添加效果都不需要写代码。
+ */
+public class WeaponEffects {
+
+    private static final String DIRECTORY = "weapon_effects";
+
+    // 数据包中的原始定义，配置变化后据此重新编译
+    private static volatile Map<Identifier, JsonObject> definitions = Map.of();
+    // 编译后的效果，按物品索引
+    private static volatile Map<Item, Compiled> compiled = Map.of();
+
+    /**
+     * 注册数据包加载、配置重新加载和使用事件
+     */
+    public static void init() {
+        ResourceManagerHelper.get(ResourceType.SERVER_DATA).registerReloadListener(
+                new SimpleSynchronousResourceReloadListener() {
+                    @Override
+                    public Identifier getFabricId() {
+                        return new Identifier(Blasphemy.MOD_ID, DIRECTORY);
+                    }
+
+                    @Override
+                    public void reload(ResourceManager manager) {
+                        load(manager);
+                    }
+                });
+        ModConfig.addReloadListener(WeaponEffects::compile);
+        UseItemCallback.EVENT.register((player, world, hand) -> {
+            ItemStack stack = player.getStackInHand(hand);
+            // 该事件早于原版的旁观者检查，旁观者不能使用武器技能
+            if (world.isClient || player.isSpectator() || !(player instanceof ServerPlayerEntity serverPlayer)) {
+                return TypedActionResult.pass(stack);
+            }
+            return use(serverPlayer, stack);
+        });
+    }
+
+    /**
+     * 物品的效果，没有定义时返回null
+     */
+    @Nullable
+    public static Compiled get(Item item) {
+        return compiled.get(item);
+    }
+
+    private static TypedActionResult<ItemStack> use(ServerPlayerEntity player, ItemStack stack) {
+        Compiled weapon = compiled.get(stack.getItem());
+        if (weapon == null || weapon.onUse.length == 0) {
+            return TypedActionResult.pass(stack);
+        }
+
+        ActionResult result = ActionResult.PASS;
+        for (UseEffect effect : weapon.onUse) {
+            ActionResult current = effect.use(player, stack);
+            if (current == ActionResult.FAIL) {
+                return TypedActionResult.fail(stack);
+            }
+            if (current.isAccepted()) {
+                result = current;
+            }
+        }
+        return result.isAccepted() ? TypedActionResult.success(stack) : TypedActionResult.pass(stack);
+    }
+
+    /**
+     * 读取数据包中的定义
+     */
+    private static void load(ResourceManager manager) {
+        Map<Identifier, JsonObject> loaded = new HashMap<>();
+        for (Map.Entry<Identifier, Resource> entry : manager.findResources(DIRECTORY,
+                id -> id.getPath().endsWith(".json")).entrySet()) {
+            Identifier file = entry.getKey();
+            String path = file.getPath();
+            Identifier itemId = new Identifier(file.getNamespace(),
+                    path.substring(DIRECTORY.length() + 1, path.length() - ".json".length()));
+            try (Reader reader = entry.getValue().getReader()) {
+                loaded.put(itemId, JsonParser.parseReader(reader).getAsJsonObject());
+            } catch (Exception e) {
+                Blasphemy.LOGGER.error("读取武器效果 {} 失败", file, e);
+            }
+        }
+        definitions = loaded;
+        compile();
+    }
+
+    /**
+     * 按当前配置编译全部定义
+     * 单个物品的定义有误时只跳过该物品
+     */
+    private static void compile() {
+        Map<Identifier, JsonObject> current = definitions;
+        ConfigSnapshot config = ModConfig.snapshot();
+        Map<Item, Compiled> result = new IdentityHashMap<>();
+        for (Map.Entry<Identifier, JsonObject> entry : current.entrySet()) {
+            Identifier itemId = entry.getKey();
+            if (!Registries.ITEM.containsId(itemId)) {
+                Blasphemy.LOGGER.warn("武器效果引用了未注册的物品：{}", itemId);
+                continue;
+            }
+            try {
+                result.put(Registries.ITEM.get(itemId), compile(itemId, entry.getValue(), config));
+            } catch (RuntimeException e) {
+                Blasphemy.LOGGER.error("编译武器效果 {} 失败：{}", itemId, e.getMessage());
+            }
+        }
+        compiled = result;
+        if (!current.isEmpty()) {
+            Blasphemy.LOGGER.info("已编译 {} 个武器的效果", result.size());
+        }
+    }
+
+    private static Compiled compile(Identifier itemId, JsonObject json, ConfigSnapshot config) {
+        List<HitEffect> onHit = new ArrayList<>();
+        for (JsonObject effect : entries(json, "on_hit")) {
+            HitEffect handler = WeaponEffectTypes.compileHit(new WeaponEffectTypes.Params(effect, config, itemId));
+            if (handler != null) {
+                onHit.add(handler);
+            }
+        }
+        List<UseEffect> onUse = new ArrayList<>();
+        for (JsonObject effect : entries(json, "on_use")) {
+            UseEffect handler = WeaponEffectTypes.compileUse(new WeaponEffectTypes.Params(effect, config, itemId));
+            if (handler != null) {
+                onUse.add(handler);
+            }
+        }
+        return new Compiled(onHit.toArray(new HitEffect[0]), onUse.toArray(new UseEffect[0]));
+    }
+
+    private static List<JsonObject> entries(JsonObject json, String name) {
+        List<JsonObject> entries = new ArrayList<>();
+        JsonElement element = json.get(name);
+        if (element != null) {
+            JsonArray array = element.getAsJsonArray();
+            for (JsonElement entry : array) {
+                entries.add(entry.getAsJsonObject());
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * 单个物品编译后的效果
+     */
+    public static final class Compiled {
+        public final HitEffect[] onHit;
+        public final UseEffect[] onUse;
+
+        private Compiled(HitEffect[] onHit, UseEffect[] onUse) {
+            this.onHit = onHit;
+            this.onUse = onUse;
+        }
+    }
+}
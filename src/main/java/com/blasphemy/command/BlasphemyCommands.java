@@ -0,0 +1,196 @@
+package com.blasphemy.command;
+
+import com.blasphemy.Blasphemy;
+import com.blasphemy.BlasphemyMixinPlugin;
+import com.blasphemy.portal.PortalFrameValidator;
+import com.blasphemy.portal.PortalIndex;
+import com.blasphemy.util.DebugTrace;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.minecraft.command.CommandSource;
+import net.minecraft.command.argument.BlockPosArgumentType;
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.text.Text;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 模组管理命令
+ * 所有子命令挂在 /blasphemy 下，需要2级权限
+ */
+public class BlasphemyCommands {
+
+    // trace dump 未指定条数时输出的记录数
+    private static final int DEFAULT_DUMP_LINES = 20;
+
+    /**
+     * 注册命令
+     */
+    public static void register() {
+        CommandRegistrationCallback.EVENT.register((dispatcher, registryAccess, environment) -> dispatcher.register(
+                CommandManager.literal(Blasphemy.MOD_ID)
+                        .requires(source -> source.hasPermissionLevel(2))
+                        .then(CommandManager.literal("portal")
+                                .then(CommandManager.literal("list")
+                                        .executes(BlasphemyCommands::listPortals))
+                                .then(CommandManager.literal("info")
+                                        .then(CommandManager.argument("pos", BlockPosArgumentType.blockPos())
+                                                .executes(BlasphemyCommands::portalInfo)))
+                                .then(CommandManager.literal("remove")
+                                        .then(CommandManager.argument("pos", BlockPosArgumentType.blockPos())
+                                                .executes(BlasphemyCommands::removePortal))))
+                        .then(CommandManager.literal("trace")
+                                .then(CommandManager.literal("dump")
+                                        .executes(context -> dumpTrace(context, DEFAULT_DUMP_LINES))
+                                        .then(CommandManager.argument("count", IntegerArgumentType.integer(1, 1000))
+                                                .executes(context -> dumpTrace(context,
+                                                        IntegerArgumentType.getInteger(context, "count")))))
+                                .then(CommandManager.literal("clear")
+                                        .executes(BlasphemyCommands::clearTrace))
+                                .then(CommandManager.argument("subsystem", StringArgumentType.word())
+                                        .suggests((context, builder) -> CommandSource.suggestMatching(
+                                                Arrays.stream(DebugTrace.Subsystem.values())
+                                                        .map(subsystem -> subsystem.name().toLowerCase(Locale.ROOT)),
+                                                builder))
+                                        .then(CommandManager.literal("on")
+                                                .executes(context -> toggleTrace(context, true)))
+                                        .then(CommandManager.literal("off")
+                                                .executes(context -> toggleTrace(context, false)))))));
+    }
+
+    /**
+     * 传送门子系统关闭时提示执行者，此时传送门索引没有初始化，不能访问
+     */
+    private static boolean checkPortalEnabled(ServerCommandSource source) {
+        if (BlasphemyMixinPlugin.isPortalEnabled()) {
+            return true;
+        }
+        source.sendError(Text.literal("传送门子系统已关闭"));
+        return false;
+    }
+
+    /**
+     * 列出执行者周围 3x3 区块内记录的传送门
+     */
+    private static int listPortals(CommandContext<ServerCommandSource> context) {
+        ServerCommandSource source = context.getSource();
+        if (!checkPortalEnabled(source)) {
+            return 0;
+        }
+        ServerWorld world = source.getWorld();
+        ChunkPos center = new ChunkPos(BlockPos.ofFloored(source.getPosition()));
+
+        // 跨区块的传送门会出现在多个区块中，只列出一次
+        Set<PortalFrameValidator.PortalFrameResult> found = new HashSet<>();
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                found.addAll(PortalIndex.getInChunk(world, center.x + dx, center.z + dz));
+            }
+        }
+
+        if (found.isEmpty()) {
+            source.sendFeedback(() -> Text.literal("§e附近没有记录的传送门"), false);
+            return 0;
+        }
+        for (PortalFrameValidator.PortalFrameResult entry : found) {
+            source.sendFeedback(() -> describe(entry), false);
+        }
+        return found.size();
+    }
+
+    /**
+     * 显示指定位置所属传送门的信息
+     */
+    private static int portalInfo(CommandContext<ServerCommandSource> context) throws CommandSyntaxException {
+        ServerCommandSource source = context.getSource();
+        if (!checkPortalEnabled(source)) {
+            return 0;
+        }
+        BlockPos pos = BlockPosArgumentType.getLoadedBlockPos(context, "pos");
+        PortalFrameValidator.PortalFrameResult entry = PortalIndex.find(source.getWorld(), pos);
+        if (entry == null) {
+            source.sendError(Text.literal("该位置没有记录的传送门"));
+            return 0;
+        }
+        source.sendFeedback(() -> describe(entry), false);
+        return 1;
+    }
+
+    /**
+     * 移除指定位置所属的传送门
+     */
+    private static int removePortal(CommandContext<ServerCommandSource> context) throws CommandSyntaxException {
+        ServerCommandSource source = context.getSource();
+        if (!checkPortalEnabled(source)) {
+            return 0;
+        }
+        BlockPos pos = BlockPosArgumentType.getLoadedBlockPos(context, "pos");
+        PortalFrameValidator.PortalFrameResult entry = PortalIndex.find(source.getWorld(), pos);
+        if (entry == null) {
+            source.sendError(Text.literal("该位置没有记录的传送门"));
+            return 0;
+        }
+        int count = PortalFrameValidator.removePortal(source.getWorld(), entry);
+        source.sendFeedback(() -> Text.literal(String.format("§a已移除传送门，清理了 %d 个传送门方块", count)), true);
+        return 1;
+    }
+
+    /**
+     * 输出追踪缓冲区中最近的记录
+     */
+    private static int dumpTrace(CommandContext<ServerCommandSource> context, int count) {
+        ServerCommandSource source = context.getSource();
+        List<String> lines = DebugTrace.dump(count);
+        if (lines.isEmpty()) {
+            source.sendFeedback(() -> Text.literal("§e追踪缓冲区为空"), false);
+            return 0;
+        }
+        for (String line : lines) {
+            source.sendFeedback(() -> Text.literal(line), false);
+        }
+        return lines.size();
+    }
+
+    /**
+     * 清空追踪缓冲区
+     */
+    private static int clearTrace(CommandContext<ServerCommandSource> context) {
+        DebugTrace.clear();
+        context.getSource().sendFeedback(() -> Text.literal("§a已清空追踪缓冲区"), false);
+        return 1;
+    }
+
+    /**
+     * 开启或关闭子系统的追踪
+     */
+    private static int toggleTrace(CommandContext<ServerCommandSource> context, boolean enabled) {
+        ServerCommandSource source = context.getSource();
+        String name = StringArgumentType.getString(context, "subsystem");
+        DebugTrace.Subsystem subsystem = DebugTrace.parse(name);
+        if (subsystem == null) {
+            source.sendError(Text.literal("未知的追踪子系统：" + name));
+            return 0;
+        }
+        DebugTrace.setEnabled(subsystem, enabled);
+        source.sendFeedback(() -> Text.literal(String.format("§a已%s %s 追踪", enabled ? "开启" : "关闭", subsystem)),
+                true);
+        return 1;
+    }
+
+    private static Text describe(PortalFrameValidator.PortalFrameResult entry) {
+        BlockPos origin = entry.getBottomLeft();
+        return Text.literal(String.format("§e传送门: 左下角=(%d, %d, %d), 宽度=%d, 高度=%d, 轴向=%s",
+                origin.getX(), origin.getY(), origin.getZ(), entry.width, entry.height, entry.axis));
+    }
+}
@@ -1,21 +1,36 @@
 package com.blasphemy.compat;
 
 import com.blasphemy.Blasphemy;
+import net.fabricmc.loader.api.FabricLoader;
 
 /**
  * 莱特兰模组兼容
  * 提供与莱特兰模组(L2Complements)的兼容性
+ * 启动时检测一次模组是否加载。莱特兰的状态效果（如炽天使的 l2complements:flame）
+ * 由武器效果在数据包加载时解析并缓存，模组未加载时对应的效果不会被编译，命中时没有额外开销。
  */
 public class LeylinesCompat {
 
+    public static final String MOD_ID = "l2complements";
+
+    private static boolean loaded;
+
     /**
      * 初始化兼容性
      */
     public static void init() {
-        Blasphemy.LOGGER.info("正在初始化莱特兰模组兼容...");
-        
-        // 添加兼容性代码
-        
+        loaded = FabricLoader.getInstance().isModLoaded(MOD_ID);
+        if (!loaded) {
+            Blasphemy.LOGGER.info("未检测到莱特兰模组，跳过兼容");
+            return;
+        }
         Blasphemy.LOGGER.info("莱特兰模组兼容初始化完成！");
     }
-} 
\ No newline at end of file
+
+    /**
+     * 莱特兰模组是否已加载
+     */
+    public static boolean isLoaded() {
+        return loaded;
+    }
+}
@@ -0,0 +1,122 @@
+package com.blasphemy.config;
+
+import com.blasphemy.Blasphemy;
+import com.google.gson.Gson;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 配置异步保存
+ * 序列化和写盘都在独立的保存线程上进行，调用方不会被阻塞。
+ * 短时间内的多次保存只写出最后一份；每次写入先写临时文件并刷盘，再原子替换目标文件，
+ * 替换前把上一份有效配置保存为 .bak 备份。
+ */
+public class ConfigSaver {
+
+    // 合并保存请求的等待时间
+    private static final long COALESCE_MILLIS = 200;
+
+    private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Blasphemy-Config-Saver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // 等待写出的配置，为null表示没有待保存的内容
+    private static final AtomicReference<ModConfig> PENDING = new AtomicReference<>();
+
+    /**
+     * 请求保存配置
+     * 已有待保存的请求时只替换内容，不再重复调度
+     */
+    static void schedule(ModConfig config) {
+        if (PENDING.getAndSet(config) == null) {
+            EXECUTOR.schedule(ConfigSaver::drain, COALESCE_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 立即写出待保存的配置并等待完成
+     * 用于服务器关闭等必须落盘的时机
+     */
+    static void flush() {
+        if (PENDING.get() == null) {
+            return;
+        }
+        try {
+            EXECUTOR.submit(ConfigSaver::drain).get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            Blasphemy.LOGGER.error("等待配置保存完成失败", e);
+        }
+    }
+
+    private static void drain() {
+        ModConfig config = PENDING.getAndSet(null);
+        if (config != null) {
+            write(ModConfig.gson(), config, ModConfig.getConfigPath());
+        }
+    }
+
+    /**
+     * 在当前线程上写出配置
+     */
+    static synchronized boolean write(Gson gson, ModConfig config, Path target) {
+        String content = gson.toJson(config);
+        try {
+            // 保留上一份有效配置作为备份
+            String previous = ModConfig.getLastGoodContent();
+            if (previous != null && !previous.equals(content)) {
+                replace(getBackupPath(target), previous);
+            }
+
+            // 先登记内容，使配置监视器忽略本次写入产生的文件事件
+            ModConfig.rememberContent(content);
+            replace(target, content);
+            ModConfig.rememberGoodContent(content);
+            Blasphemy.LOGGER.info("成功保存配置文件");
+            return true;
+        } catch (IOException e) {
+            Blasphemy.LOGGER.error("保存配置文件失败", e);
+            return false;
+        }
+    }
+
+    /**
+     * 写入临时文件并刷盘后原子替换目标文件
+     */
+    private static void replace(Path target, String content) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * 备份文件路径
+     */
+    static Path getBackupPath(Path target) {
+        return target.resolveSibling(target.getFileName() + ".bak");
+    }
+}
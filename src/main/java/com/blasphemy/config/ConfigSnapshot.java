@@ -0,0 +1,252 @@
+package com.blasphemy.config;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+import net.minecraft.entity.EntityType;
+import net.minecraft.item.Item;
+import net.minecraft.registry.Registries;
+import net.minecraft.registry.RegistryKeys;
+import net.minecraft.registry.tag.TagKey;
+import net.minecraft.util.Identifier;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 不可变的配置快照
+ * 由 ModConfig 在加载或热重载通过校验后构建，整体替换发布。
+ * 派生值（冷却刻数、距离平方、注册表引用、标签）在构建时预先计算，
+ * 热路径只需读取一次 ModConfig.snapshot() 即可拿到一致的全部数值。
+ */
+public final class ConfigSnapshot {
+
+    public final Seraphim seraphim;
+    public final Rapids rapids;
+    public final Muramasa muramasa;
+    public final Cleave cleave;
+    public final Aoe aoe;
+    public final Portal portal;
+    public final Debug debug;
+
+    // 全部数值选项，按 JSON 路径（如 seraphimSword.baseDamage）索引，布尔值记为 1 或 0
+    private final Map<String, Double> numbers;
+
+    private ConfigSnapshot(ModConfig config) {
+        this.seraphim = new Seraphim(config.seraphimSword);
+        this.rapids = new Rapids(config.rapidsSword);
+        this.muramasa = new Muramasa(config.muramasaSword);
+        this.cleave = new Cleave(config.cleaveConfig);
+        this.aoe = new Aoe(config.aoeConfig);
+        this.portal = new Portal(config.portalConfig);
+        this.debug = new Debug(config.debugConfig);
+
+        Map<String, Double> values = new HashMap<>();
+        collectNumbers(ModConfig.gson().toJsonTree(config), "", values);
+        this.numbers = Map.copyOf(values);
+    }
+
+    private static void collectNumbers(JsonElement element, String path, Map<String, Double> values) {
+        if (element.isJsonObject()) {
+            for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+                collectNumbers(entry.getValue(), path.isEmpty() ? entry.getKey() : path + "." + entry.getKey(), values);
+            }
+        } else if (element.isJsonPrimitive()) {
+            JsonPrimitive primitive = element.getAsJsonPrimitive();
+            if (primitive.isNumber()) {
+                values.put(path, primitive.getAsDouble());
+            } else if (primitive.isBoolean()) {
+                values.put(path, primitive.getAsBoolean() ? 1.0 : 0.0);
+            }
+        }
+    }
+
+    /**
+     * 由已通过校验的配置构建快照
+     */
+    static ConfigSnapshot of(ModConfig config) {
+        return new ConfigSnapshot(config);
+    }
+
+    /**
+     * 按 JSON 路径读取数值选项，供数据驱动的内容引用配置
+     *
+     * @return 路径不存在或不是数值时返回null
+     */
+    @Nullable
+    public Double getNumber(String path) {
+        return numbers.get(path);
+    }
+
+    /**
+     * 炽天使配置
+     */
+    public static final class Seraphim {
+        public final float baseDamage;
+        public final float attackSpeed;
+        public final float specialDamageMultiplier;
+        public final float pushStrength;
+        public final int cooldownSeconds;
+        public final int cooldownTicks;
+        public final int particleCount;
+        public final boolean enableParticles;
+        public final float undeadDamageMultiplier;
+        // 亡灵额外伤害，即 baseDamage * undeadDamageMultiplier
+        public final float undeadBonusDamage;
+        public final List<TagKey<EntityType<?>>> undeadEntityTags;
+
+        private Seraphim(ModConfig.SeraphimSwordConfig config) {
+            this.baseDamage = config.baseDamage;
+            this.attackSpeed = config.attackSpeed;
+            this.specialDamageMultiplier = config.specialDamageMultiplier;
+            this.pushStrength = config.pushStrength;
+            this.cooldownSeconds = config.cooldownSeconds;
+            this.cooldownTicks = config.cooldownSeconds * 20;
+            this.particleCount = config.particleCount;
+            this.enableParticles = config.enableParticles;
+            this.undeadDamageMultiplier = config.undeadDamageMultiplier;
+            this.undeadBonusDamage = config.baseDamage * config.undeadDamageMultiplier;
+
+            List<TagKey<EntityType<?>>> tags = new ArrayList<>();
+            for (String entry : config.undeadEntityTags) {
+                Identifier id = Identifier.tryParse(entry.startsWith("#") ? entry.substring(1) : entry);
+                if (id != null) {
+                    tags.add(TagKey.of(RegistryKeys.ENTITY_TYPE, id));
+                }
+            }
+            this.undeadEntityTags = List.copyOf(tags);
+        }
+    }
+
+    /**
+     * 激流之剑配置
+     */
+    public static final class Rapids {
+        public final float baseDamage;
+        public final float attackSpeed;
+        public final float specialDamageMultiplier;
+        public final float executionThreshold;
+        public final float executionChance;
+
+        private Rapids(ModConfig.RapidsSwordConfig config) {
+            this.baseDamage = config.baseDamage;
+            this.attackSpeed = config.attackSpeed;
+            this.specialDamageMultiplier = config.specialDamageMultiplier;
+            this.executionThreshold = config.executionThreshold;
+            this.executionChance = config.executionChance;
+        }
+    }
+
+    /**
+     * 妖刀村正配置
+     */
+    public static final class Muramasa {
+        public final float baseDamage;
+        public final float attackSpeed;
+        public final float specialDamageMultiplier;
+        public final float executionThreshold;
+        public final float executionChance;
+        public final float armorThreshold;
+
+        private Muramasa(ModConfig.MuramasaSwordConfig config) {
+            this.baseDamage = config.baseDamage;
+            this.attackSpeed = config.attackSpeed;
+            this.specialDamageMultiplier = config.specialDamageMultiplier;
+            this.executionThreshold = config.executionThreshold;
+            this.executionChance = config.executionChance;
+            this.armorThreshold = config.armorThreshold;
+        }
+    }
+
+    /**
+     * 群体斩击附魔配置
+     */
+    public static final class Cleave {
+        public final float attackRange;
+        public final double attackRangeSquared;
+        public final float baseMultiplier;
+        public final float levelMultiplier;
+        public final int maxLevel;
+
+        private Cleave(ModConfig.CleaveConfig config) {
+            this.attackRange = config.attackRange;
+            this.attackRangeSquared = (double) config.attackRange * config.attackRange;
+            this.baseMultiplier = config.baseMultiplier;
+            this.levelMultiplier = config.levelMultiplier;
+            this.maxLevel = config.maxLevel;
+        }
+
+        /**
+         * 指定等级的伤害倍率
+         */
+        public float multiplier(int level) {
+            return baseMultiplier + levelMultiplier * level;
+        }
+    }
+
+    /**
+     * 范围技能配置
+     */
+    public static final class Aoe {
+        public final int maxTargets;
+        public final int targetsPerTick;
+
+        private Aoe(ModConfig.AoeConfig config) {
+            this.maxTargets = config.maxTargets;
+            this.targetsPerTick = config.targetsPerTick;
+        }
+    }
+
+    /**
+     * 传送门配置
+     * 框架方块可能包含标签，标签在数据包加载后才绑定，由 FrameBlockMatcher 单独编译
+     */
+    public static final class Portal {
+        public final boolean enabled;
+        public final boolean supportVanillaItems;
+        public final List<String> portalBlocks;
+        public final String ignitionItemId;
+        // 解析后的点火物品，未配置或尚未注册时为null
+        @Nullable
+        public final Item ignitionItem;
+        public final boolean asyncValidation;
+        public final String invalidBlockMessage;
+        public final String invalidItemMessage;
+
+        private Portal(ModConfig.PortalConfig config) {
+            this.enabled = config.enabled;
+            this.supportVanillaItems = config.supportVanillaItems;
+            this.portalBlocks = List.copyOf(config.portalBlocks);
+            this.ignitionItemId = config.ignitionItem;
+            this.ignitionItem = resolveItem(config.ignitionItem);
+            this.asyncValidation = config.asyncValidation;
+            this.invalidBlockMessage = config.messages.invalidBlock;
+            this.invalidItemMessage = config.messages.invalidItem;
+        }
+
+        @Nullable
+        private static Item resolveItem(String configured) {
+            Identifier id = configured == null ? null : Identifier.tryParse(configured);
+            // 物品注册表带默认值，未注册的ID会返回空气，必须先判断是否存在
+            if (id == null || !Registries.ITEM.containsId(id)) {
+                return null;
+            }
+            return Registries.ITEM.get(id);
+        }
+    }
+
+    /**
+     * 诊断追踪配置
+     */
+    public static final class Debug {
+        public final List<String> traceSubsystems;
+        public final int traceBufferSize;
+
+        private Debug(ModConfig.DebugConfig config) {
+            this.traceSubsystems = List.copyOf(config.traceSubsystems);
+            this.traceBufferSize = config.traceBufferSize;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.blasphemy.config;
+
+import com.blasphemy.Blasphemy;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.networking.v1.PacketByteBufs;
+import net.fabricmc.fabric.api.networking.v1.PlayerLookup;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.network.listener.ClientPlayPacketListener;
+import net.minecraft.network.packet.Packet;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.Identifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 服务端到客户端的配置同步
+ * 玩家加入时发送一次完整配置，之后服务端配置重新加载时只发送发生变化的字段。
+ * 数据包为紧凑的二进制格式：字段按下表中的序号编码，不传输字段名和 JSON。
+ * 只同步客户端会读取的玩法数值，调试和服务端专用的选项不同步。
+ */
+public class ConfigSync {
+
+    public static final Identifier FULL_PACKET = new Identifier(Blasphemy.MOD_ID, "config_full");
+    public static final Identifier DELTA_PACKET = new Identifier(Blasphemy.MOD_ID, "config_delta");
+
+    // 同步字段表，序号即数据包中的字段编号，只能在末尾追加
+    private static final List<Field<?>> FIELDS = new ArrayList<>();
+
+    static {
+        floatField(c -> c.seraphimSword.baseDamage, (c, v) -> c.seraphimSword.baseDamage = v);
+        floatField(c -> c.seraphimSword.attackSpeed, (c, v) -> c.seraphimSword.attackSpeed = v);
+        floatField(c -> c.seraphimSword.specialDamageMultiplier, (c, v) -> c.seraphimSword.specialDamageMultiplier = v);
+        floatField(c -> c.seraphimSword.pushStrength, (c, v) -> c.seraphimSword.pushStrength = v);
+        intField(c -> c.seraphimSword.cooldownSeconds, (c, v) -> c.seraphimSword.cooldownSeconds = v);
+        intField(c -> c.seraphimSword.particleCount, (c, v) -> c.seraphimSword.particleCount = v);
+        boolField(c -> c.seraphimSword.enableParticles, (c, v) -> c.seraphimSword.enableParticles = v);
+        floatField(c -> c.seraphimSword.undeadDamageMultiplier, (c, v) -> c.seraphimSword.undeadDamageMultiplier = v);
+        listField(c -> c.seraphimSword.undeadEntityTags, (c, v) -> c.seraphimSword.undeadEntityTags = v);
+
+        floatField(c -> c.rapidsSword.baseDamage, (c, v) -> c.rapidsSword.baseDamage = v);
+        floatField(c -> c.rapidsSword.attackSpeed, (c, v) -> c.rapidsSword.attackSpeed = v);
+        floatField(c -> c.rapidsSword.specialDamageMultiplier, (c, v) -> c.rapidsSword.specialDamageMultiplier = v);
+        floatField(c -> c.rapidsSword.executionThreshold, (c, v) -> c.rapidsSword.executionThreshold = v);
+        floatField(c -> c.rapidsSword.executionChance, (c, v) -> c.rapidsSword.executionChance = v);
+
+        floatField(c -> c.muramasaSword.baseDamage, (c, v) -> c.muramasaSword.baseDamage = v);
+        floatField(c -> c.muramasaSword.attackSpeed, (c, v) -> c.muramasaSword.attackSpeed = v);
+        floatField(c -> c.muramasaSword.specialDamageMultiplier, (c, v) -> c.muramasaSword.specialDamageMultiplier = v);
+        floatField(c -> c.muramasaSword.executionThreshold, (c, v) -> c.muramasaSword.executionThreshold = v);
+        floatField(c -> c.muramasaSword.executionChance, (c, v) -> c.muramasaSword.executionChance = v);
+        floatField(c -> c.muramasaSword.armorThreshold, (c, v) -> c.muramasaSword.armorThreshold = v);
+
+        floatField(c -> c.cleaveConfig.attackRange, (c, v) -> c.cleaveConfig.attackRange = v);
+        floatField(c -> c.cleaveConfig.baseMultiplier, (c, v) -> c.cleaveConfig.baseMultiplier = v);
+        floatField(c -> c.cleaveConfig.levelMultiplier, (c, v) -> c.cleaveConfig.levelMultiplier = v);
+        intField(c -> c.cleaveConfig.maxLevel, (c, v) -> c.cleaveConfig.maxLevel = v);
+
+        boolField(c -> c.portalConfig.enabled, (c, v) -> c.portalConfig.enabled = v);
+        boolField(c -> c.portalConfig.supportVanillaItems, (c, v) -> c.portalConfig.supportVanillaItems = v);
+        listField(c -> c.portalConfig.portalBlocks, (c, v) -> c.portalConfig.portalBlocks = v);
+        stringField(c -> c.portalConfig.ignitionItem, (c, v) -> c.portalConfig.ignitionItem = v);
+    }
+
+    private static volatile MinecraftServer server;
+    // 最近一次广播给客户端的配置，用于计算变化的字段
+    private static volatile ModConfig lastSent;
+
+    /**
+     * 注册服务端同步
+     */
+    public static void init() {
+        ServerLifecycleEvents.SERVER_STARTED.register(current -> {
+            server = current;
+            lastSent = ModConfig.getConfig();
+        });
+        ServerLifecycleEvents.SERVER_STOPPED.register(current -> {
+            server = null;
+            lastSent = null;
+        });
+        ServerPlayConnectionEvents.JOIN.register((handler, sender, current) ->
+                sender.sendPacket(FULL_PACKET, writeFull(ModConfig.getConfig())));
+        ModConfig.addReloadListener(ConfigSync::broadcastChanges);
+    }
+
+    /**
+     * 配置重新加载后向所有玩家发送变化的字段
+     */
+    private static void broadcastChanges() {
+        MinecraftServer current = server;
+        ModConfig previous = lastSent;
+        ModConfig config = ModConfig.getConfig();
+        if (current == null || previous == null || previous == config) {
+            return;
+        }
+        lastSent = config;
+
+        PacketByteBuf delta = writeDelta(previous, config);
+        if (delta == null) {
+            return;
+        }
+        // 只编码一次，所有玩家共用同一个数据包
+        Packet<ClientPlayPacketListener> packet = ServerPlayNetworking.createS2CPacket(DELTA_PACKET, delta);
+        for (ServerPlayerEntity player : PlayerLookup.all(current)) {
+            player.networkHandler.sendPacket(packet);
+        }
+    }
+
+    /**
+     * 编码完整配置：字段数量，随后按序号写出全部字段
+     */
+    public static PacketByteBuf writeFull(ModConfig config) {
+        PacketByteBuf buf = PacketByteBufs.create();
+        buf.writeVarInt(FIELDS.size());
+        for (Field<?> field : FIELDS) {
+            field.write(config, buf);
+        }
+        return buf;
+    }
+
+    /**
+     * 编码变化的字段：字段数量，随后为若干 (序号, 值)
+     *
+     * @return 没有字段变化时返回null
+     */
+    public static PacketByteBuf writeDelta(ModConfig previous, ModConfig config) {
+        List<Integer> changed = new ArrayList<>();
+        for (int i = 0; i < FIELDS.size(); i++) {
+            if (FIELDS.get(i).differs(previous, config)) {
+                changed.add(i);
+            }
+        }
+        if (changed.isEmpty()) {
+            return null;
+        }
+
+        PacketByteBuf buf = PacketByteBufs.create();
+        buf.writeVarInt(changed.size());
+        for (int index : changed) {
+            buf.writeVarInt(index);
+            FIELDS.get(index).write(config, buf);
+        }
+        return buf;
+    }
+
+    /**
+     * 把完整配置读入目标配置，目标应为一份未发布的副本
+     *
+     * @return 字段表与服务端不一致时返回false，此时应丢弃目标配置
+     */
+    public static boolean readFull(PacketByteBuf buf, ModConfig target) {
+        int count = buf.readVarInt();
+        if (count != FIELDS.size()) {
+            Blasphemy.LOGGER.warn("服务端配置字段数量为 {}，客户端为 {}，忽略配置同步", count, FIELDS.size());
+            return false;
+        }
+        for (Field<?> field : FIELDS) {
+            field.read(buf, target);
+        }
+        return true;
+    }
+
+    /**
+     * 把变化的字段读入目标配置，目标应为一份未发布的副本
+     *
+     * @return 包含未知字段时返回false，此时应丢弃目标配置
+     */
+    public static boolean readDelta(PacketByteBuf buf, ModConfig target) {
+        int count = buf.readVarInt();
+        for (int i = 0; i < count; i++) {
+            int index = buf.readVarInt();
+            if (index < 0 || index >= FIELDS.size()) {
+                Blasphemy.LOGGER.warn("收到未知的配置字段 {}，忽略本次配置同步", index);
+                return false;
+            }
+            FIELDS.get(index).read(buf, target);
+        }
+        return true;
+    }
+
+    private static void floatField(Function<ModConfig, Float> getter, BiConsumer<ModConfig, Float> setter) {
+        FIELDS.add(new Field<>(getter, setter, (buf, value) -> buf.writeFloat(value), PacketByteBuf::readFloat));
+    }
+
+    private static void intField(Function<ModConfig, Integer> getter, BiConsumer<ModConfig, Integer> setter) {
+        FIELDS.add(new Field<>(getter, setter, PacketByteBuf::writeVarInt, PacketByteBuf::readVarInt));
+    }
+
+    private static void boolField(Function<ModConfig, Boolean> getter, BiConsumer<ModConfig, Boolean> setter) {
+        FIELDS.add(new Field<>(getter, setter, PacketByteBuf::writeBoolean, PacketByteBuf::readBoolean));
+    }
+
+    private static void stringField(Function<ModConfig, String> getter, BiConsumer<ModConfig, String> setter) {
+        FIELDS.add(new Field<>(getter, setter, PacketByteBuf::writeString, PacketByteBuf::readString));
+    }
+
+    private static void listField(Function<ModConfig, List<String>> getter,
+            BiConsumer<ModConfig, List<String>> setter) {
+        FIELDS.add(new Field<>(getter, setter,
+                (buf, value) -> buf.writeCollection(value, PacketByteBuf::writeString),
+                buf -> buf.readCollection(ArrayList::new, PacketByteBuf::readString)));
+    }
+
+    /**
+     * 单个同步字段
+     */
+    private static final class Field<T> {
+        private final Function<ModConfig, T> getter;
+        private final BiConsumer<ModConfig, T> setter;
+        private final BiConsumer<PacketByteBuf, T> writer;
+        private final Function<PacketByteBuf, T> reader;
+
+        private Field(Function<ModConfig, T> getter, BiConsumer<ModConfig, T> setter,
+                BiConsumer<PacketByteBuf, T> writer, Function<PacketByteBuf, T> reader) {
+            this.getter = getter;
+            this.setter = setter;
+            this.writer = writer;
+            this.reader = reader;
+        }
+
+        void write(ModConfig config, PacketByteBuf buf) {
+            writer.accept(buf, getter.apply(config));
+        }
+
+        void read(PacketByteBuf buf, ModConfig config) {
+            setter.accept(config, reader.apply(buf));
+        }
+
+        boolean differs(ModConfig a, ModConfig b) {
+            return !Objects.equals(getter.apply(a), getter.apply(b));
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.blasphemy.config;
+
+import com.blasphemy.Blasphemy;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.minecraft.server.MinecraftServer;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.Executor;
+
+/**
+ * 配置文件监视器
+ * 在后台线程上监视 blasphemy.json，文件变化后在该线程上解析和校验，
+ * 通过校验后在服务器线程上发布新快照；没有运行中的服务器时（主菜单、连接远程服务器）
+ * 交给客户端主线程发布，专用服务器启动前则留到服务器启动时发布，重新加载监听器不会在监视线程上执行。
+ * 无效的文件不会替换当前配置。
+ */
+public class ConfigWatcher {
+
+    // 编辑器保存文件时通常会产生多个事件，等待一段时间后合并处理
+    private static final long DEBOUNCE_MILLIS = 300;
+
+    private static volatile MinecraftServer server;
+    // 客户端主线程，由 BlasphemyClient 设置；专用服务器上为null
+    private static volatile Executor clientExecutor;
+    // 没有可用线程时暂存的配置，在服务器启动时发布
+    private static ModConfig deferred;
+    private static WatchService watchService;
+
+    /**
+     * 启动监视线程
+     */
+    public static synchronized void start() {
+        if (watchService != null) {
+            return;
+        }
+
+        ServerLifecycleEvents.SERVER_STARTING.register(current -> {
+            server = current;
+            // 其他模组的物品可能在本模组初始化之后才注册，重新构建快照以解析注册表引用
+            ModConfig pending = takeDeferred();
+            if (pending != null) {
+                ModConfig.publish(pending);
+                Blasphemy.LOGGER.info("配置文件已重新加载");
+            } else {
+                ModConfig.republish();
+            }
+        });
+        ServerLifecycleEvents.SERVER_STOPPED.register(current -> {
+            server = null;
+            // 关闭前写出尚未保存的配置
+            ModConfig.flushSave();
+        });
+
+        Path file = ModConfig.getConfigPath();
+        Path directory = file.getParent();
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            Blasphemy.LOGGER.error("无法监视配置目录，配置热重载不可用", e);
+            return;
+        }
+
+        Thread thread = new Thread(() -> watch(watchService, file.getFileName()), "Blasphemy-Config-Watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 设置客户端主线程，没有运行中的服务器时在该线程上发布配置
+     */
+    public static void setClientExecutor(Executor executor) {
+        clientExecutor = executor;
+    }
+
+    private static synchronized ModConfig takeDeferred() {
+        ModConfig pending = deferred;
+        deferred = null;
+        return pending;
+    }
+
+    private static synchronized void defer(ModConfig config) {
+        deferred = config;
+    }
+
+    private static void watch(WatchService service, Path fileName) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (fileName.equals(event.context())) {
+                        changed = true;
+                    }
+                }
+                key.reset();
+                if (!changed) {
+                    continue;
+                }
+
+                // 合并短时间内的连续事件
+                Thread.sleep(DEBOUNCE_MILLIS);
+                WatchKey pending;
+                while ((pending = service.poll()) != null) {
+                    pending.pollEvents();
+                    pending.reset();
+                }
+
+                reload();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // 线程结束
+        }
+    }
+
+    /**
+     * 在当前线程上解析配置，在服务器线程上发布
+     */
+    private static void reload() {
+        ModConfig loaded;
+        try {
+            loaded = ModConfig.reloadFromDisk();
+        } catch (RuntimeException e) {
+            Blasphemy.LOGGER.error("重新加载配置文件失败", e);
+            return;
+        }
+        if (loaded == null) {
+            return;
+        }
+
+        Runnable publish = () -> {
+            ModConfig.publish(loaded);
+            Blasphemy.LOGGER.info("配置文件已重新加载");
+        };
+        MinecraftServer current = server;
+        Executor client = clientExecutor;
+        if (current != null) {
+            current.execute(publish);
+        } else if (client != null) {
+            client.execute(publish);
+        } else {
+            defer(loaded);
+        }
+    }
+}
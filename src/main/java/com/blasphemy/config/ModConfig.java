@@ -3,14 +3,20 @@ package com.blasphemy.config;
 import com.blasphemy.Blasphemy;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
 import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.util.Identifier;
 
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 /**
  * 模组配置类
@@ -18,10 +24,22 @@ import java.util.List;
  */
 public class ModConfig {
 
-    private static ModConfig instance;
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
     private static final File CONFIG_FILE = FabricLoader.getInstance().getConfigDir().resolve("blasphemy.json")
             .toFile();
+    // 配置重新加载后需要通知的监听器
+    private static final List<Runnable> RELOAD_LISTENERS = new CopyOnWriteArrayList<>();
+
+    // 当前生效的配置和对应的快照，只在 publish 中整体替换，发布后不再修改
+    private static volatile ModConfig instance;
+    private static volatile ConfigSnapshot snapshot;
+    // 最近一次读取或写入的文件内容，用于忽略内容未变化的文件事件
+    private static volatile String lastContent;
+    // 最近一次通过校验的文件内容，保存时写入备份
+    private static volatile String lastGoodContent;
+    // 连接到远程服务器时由服务端同步的配置，存在时优先于本地配置
+    private static volatile ModConfig remoteConfig;
+    private static volatile ConfigSnapshot remoteSnapshot;
 
     // 炽天使配置
     public SeraphimSwordConfig seraphimSword = new SeraphimSwordConfig();
@@ -35,53 +53,370 @@ public class ModConfig {
     // 群体斩击附魔配置
     public CleaveConfig cleaveConfig = new CleaveConfig();
 
+    // 范围技能配置
+    public AoeConfig aoeConfig = new AoeConfig();
+
     // 传送门配置
     public PortalConfig portalConfig = new PortalConfig();
 
+    // 诊断追踪配置
+    public DebugConfig debugConfig = new DebugConfig();
+
     /**
      * 加载配置
      */
-    public static void load() {
+    public static synchronized void load() {
         Blasphemy.LOGGER.info("加载配置文件...");
 
         // 如果配置文件不存在，创建默认配置
         if (!CONFIG_FILE.exists()) {
-            instance = new ModConfig();
-            save();
+            ModConfig defaults = new ModConfig();
+            ConfigSaver.write(GSON, defaults, CONFIG_FILE.toPath());
             Blasphemy.LOGGER.info("创建默认配置文件");
+            publish(defaults);
             return;
         }
 
-        // 读取配置文件
-        try (FileReader reader = new FileReader(CONFIG_FILE)) {
-            instance = GSON.fromJson(reader, ModConfig.class);
+        // 读取配置文件，文件损坏时尝试使用备份
+        ModConfig loaded = loadFrom(CONFIG_FILE.toPath(), true);
+        if (loaded == null) {
+            Path backup = ConfigSaver.getBackupPath(CONFIG_FILE.toPath());
+            loaded = Files.exists(backup) ? loadFrom(backup, false) : null;
+            if (loaded != null) {
+                Blasphemy.LOGGER.warn("配置文件无效，已使用备份 {}", backup.getFileName());
+            } else {
+                Blasphemy.LOGGER.error("配置文件无效，使用默认配置");
+                loaded = new ModConfig();
+            }
+        } else {
             Blasphemy.LOGGER.info("成功加载配置文件");
+        }
+        publish(loaded);
+    }
+
+    /**
+     * 读取、解析并校验一个配置文件
+     *
+     * @param primary 是否为主配置文件，主配置文件的内容会被登记以忽略对应的文件事件
+     * @return 通过校验的配置；读取失败、格式错误或校验失败时返回null
+     */
+    private static ModConfig loadFrom(Path path, boolean primary) {
+        String content;
+        ModConfig loaded;
+        try {
+            content = Files.readString(path, StandardCharsets.UTF_8);
+            if (primary) {
+                lastContent = content;
+            }
+            loaded = parse(content);
+        } catch (IOException | JsonParseException e) {
+            Blasphemy.LOGGER.error("读取配置文件 {} 失败：{}", path.getFileName(), e.getMessage());
+            return null;
+        }
+
+        List<String> problems = loaded.validate();
+        if (!problems.isEmpty()) {
+            problems.forEach(problem -> Blasphemy.LOGGER.error("配置无效：{}", problem));
+            return null;
+        }
+        lastGoodContent = content;
+        return loaded;
+    }
+
+    /**
+     * 从磁盘重新加载配置，由 ConfigWatcher 在后台线程上调用
+     * 解析和校验都在调用线程上完成，失败时保留当前配置
+     *
+     * @return 通过校验的新配置；文件内容未变化或无效时返回null
+     */
+    static ModConfig reloadFromDisk() {
+        String content;
+        try {
+            content = readFile();
         } catch (IOException e) {
-            Blasphemy.LOGGER.error("加载配置文件失败", e);
-            instance = new ModConfig();
+            Blasphemy.LOGGER.error("读取配置文件失败", e);
+            return null;
+        }
+        if (content.equals(lastContent)) {
+            return null;
+        }
+
+        ModConfig loaded;
+        try {
+            loaded = parse(content);
+        } catch (JsonParseException e) {
+            Blasphemy.LOGGER.error("配置文件格式错误，保留当前配置：{}", e.getMessage());
+            return null;
+        }
+
+        List<String> problems = loaded.validate();
+        if (!problems.isEmpty()) {
+            problems.forEach(problem -> Blasphemy.LOGGER.error("配置无效：{}", problem));
+            Blasphemy.LOGGER.error("配置文件校验失败，保留当前配置");
+            return null;
+        }
+        lastGoodContent = content;
+        return loaded;
+    }
+
+    private static String readFile() throws IOException {
+        String content = Files.readString(CONFIG_FILE.toPath(), StandardCharsets.UTF_8);
+        lastContent = content;
+        return content;
+    }
+
+    private static ModConfig parse(String content) {
+        ModConfig loaded = GSON.fromJson(content, ModConfig.class);
+        // 空文件会被解析为null，按损坏处理
+        if (loaded == null) {
+            throw new JsonParseException("配置文件为空");
+        }
+        return loaded;
+    }
+
+    /**
+     * 发布一份已通过校验的配置
+     * 先构建快照再整体替换，读取方要么看到旧快照，要么看到新快照
+     */
+    static synchronized void publish(ModConfig config) {
+        snapshot = ConfigSnapshot.of(config);
+        instance = config;
+        notifyReloadListeners();
+    }
+
+    /**
+     * 用当前配置重新构建快照
+     * 其他模组的物品可能在本模组初始化之后才注册，服务器启动时需要重新解析注册表引用
+     */
+    public static void republish() {
+        publish(getConfig());
+    }
+
+    /**
+     * 修改配置并异步保存
+     * 在当前配置的副本上应用修改，校验通过后发布新快照并保存到磁盘，已发布的配置不会被修改
+     *
+     * @return 发现的问题，为空表示修改已生效
+     */
+    public static synchronized List<String> update(Consumer<ModConfig> editor) {
+        ModConfig copy = copy(getConfig());
+        editor.accept(copy);
+        List<String> problems = copy.validate();
+        if (problems.isEmpty()) {
+            publish(copy);
+            save();
+        }
+        return problems;
+    }
+
+    /**
+     * 深拷贝一份配置
+     */
+    public static ModConfig copy(ModConfig config) {
+        return GSON.fromJson(GSON.toJson(config), ModConfig.class);
+    }
+
+    /**
+     * 应用服务端同步的配置
+     * 之后 snapshot() 返回服务端配置，本地文件的变化在断开连接前不再生效
+     *
+     * @return 配置是否通过校验并生效
+     */
+    public static synchronized boolean applyRemote(ModConfig config) {
+        List<String> problems = config.validate();
+        if (!problems.isEmpty()) {
+            problems.forEach(problem -> Blasphemy.LOGGER.error("服务端同步的配置无效：{}", problem));
+            return false;
+        }
+        remoteSnapshot = ConfigSnapshot.of(config);
+        remoteConfig = config;
+        notifyReloadListeners();
+        return true;
+    }
+
+    /**
+     * 断开连接后恢复使用本地配置
+     */
+    public static synchronized void clearRemote() {
+        if (remoteConfig == null) {
+            return;
+        }
+        remoteConfig = null;
+        remoteSnapshot = null;
+        notifyReloadListeners();
+    }
+
+    /**
+     * 获取服务端同步的配置，未连接远程服务器时返回null
+     */
+    public static ModConfig getRemoteConfig() {
+        return remoteConfig;
+    }
+
+    /**
+     * 校验配置
+     *
+     * @return 发现的问题，为空表示配置有效
+     */
+    public List<String> validate() {
+        List<String> problems = new ArrayList<>();
+        if (seraphimSword == null || rapidsSword == null || muramasaSword == null || cleaveConfig == null
+                || aoeConfig == null || portalConfig == null || debugConfig == null) {
+            problems.add("缺少配置分组");
+            return problems;
+        }
+
+        requireRange(problems, "seraphimSword.baseDamage", seraphimSword.baseDamage, 0, 1024);
+        requireRange(problems, "seraphimSword.specialDamageMultiplier", seraphimSword.specialDamageMultiplier, 0, 100);
+        requireRange(problems, "seraphimSword.pushStrength", seraphimSword.pushStrength, 0, 16);
+        requireRange(problems, "seraphimSword.cooldownSeconds", seraphimSword.cooldownSeconds, 0, 86400);
+        requireRange(problems, "seraphimSword.particleCount", seraphimSword.particleCount, 0, 1000);
+        requireRange(problems, "seraphimSword.undeadDamageMultiplier", seraphimSword.undeadDamageMultiplier, 0, 100);
+        requireIds(problems, "seraphimSword.undeadEntityTags", seraphimSword.undeadEntityTags);
+
+        requireRange(problems, "rapidsSword.baseDamage", rapidsSword.baseDamage, 0, 1024);
+        requireRange(problems, "rapidsSword.specialDamageMultiplier", rapidsSword.specialDamageMultiplier, 0, 100);
+        requireRange(problems, "rapidsSword.executionThreshold", rapidsSword.executionThreshold, 0, 1);
+        requireRange(problems, "rapidsSword.executionChance", rapidsSword.executionChance, 0, 1);
+
+        requireRange(problems, "muramasaSword.baseDamage", muramasaSword.baseDamage, 0, 1024);
+        requireRange(problems, "muramasaSword.specialDamageMultiplier", muramasaSword.specialDamageMultiplier, 0, 100);
+        requireRange(problems, "muramasaSword.executionThreshold", muramasaSword.executionThreshold, 0, 1);
+        requireRange(problems, "muramasaSword.executionChance", muramasaSword.executionChance, 0, 1);
+        requireRange(problems, "muramasaSword.armorThreshold", muramasaSword.armorThreshold, 0, 1024);
+
+        requireRange(problems, "cleaveConfig.attackRange", cleaveConfig.attackRange, 0, 32);
+        requireRange(problems, "cleaveConfig.baseMultiplier", cleaveConfig.baseMultiplier, 0, 100);
+        requireRange(problems, "cleaveConfig.levelMultiplier", cleaveConfig.levelMultiplier, 0, 100);
+        requireRange(problems, "cleaveConfig.maxLevel", cleaveConfig.maxLevel, 1, 255);
+
+        requireRange(problems, "aoeConfig.maxTargets", aoeConfig.maxTargets, 1, 1024);
+        requireRange(problems, "aoeConfig.targetsPerTick", aoeConfig.targetsPerTick, 1, 1024);
+
+        requireIds(problems, "portalConfig.portalBlocks", portalConfig.portalBlocks);
+        if (portalConfig.ignitionItem == null || Identifier.tryParse(portalConfig.ignitionItem) == null) {
+            problems.add("portalConfig.ignitionItem 不是有效的物品ID：" + portalConfig.ignitionItem);
+        }
+        if (portalConfig.messages == null || portalConfig.messages.invalidBlock == null
+                || portalConfig.messages.invalidItem == null) {
+            problems.add("portalConfig.messages 不完整");
+        }
+
+        if (debugConfig.traceSubsystems == null || debugConfig.traceSubsystems.contains(null)) {
+            problems.add("debugConfig.traceSubsystems 不能为空或包含空值");
+        }
+        requireRange(problems, "debugConfig.traceBufferSize", debugConfig.traceBufferSize, 16, 65536);
+        return problems;
+    }
+
+    private static void requireRange(List<String> problems, String name, double value, double min, double max) {
+        if (!(value >= min && value <= max)) {
+            problems.add(name + " 必须在 " + min + " 到 " + max + " 之间，当前为 " + value);
+        }
+    }
+
+    /**
+     * 检查ID列表，允许以 # 开头的标签
+     */
+    private static void requireIds(List<String> problems, String name, List<String> ids) {
+        if (ids == null) {
+            problems.add(name + " 不能为空");
+            return;
+        }
+        for (String id : ids) {
+            if (id == null || Identifier.tryParse(id.startsWith("#") ? id.substring(1) : id) == null) {
+                problems.add(name + " 包含无效的ID：" + id);
+            }
+        }
+    }
+
+    /**
+     * 注册配置重新加载监听器
+     * 用于让依赖配置的预计算数据在配置变化后重建
+     */
+    public static void addReloadListener(Runnable listener) {
+        RELOAD_LISTENERS.add(listener);
+    }
+
+    /**
+     * 通知所有配置重新加载监听器
+     */
+    private static void notifyReloadListeners() {
+        for (Runnable listener : RELOAD_LISTENERS) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                Blasphemy.LOGGER.error("配置重新加载监听器执行失败", e);
+            }
         }
     }
 
     /**
      * 保存配置
+     * 在保存线程上序列化并原子替换配置文件，不阻塞调用线程
      */
     public static void save() {
-        try (FileWriter writer = new FileWriter(CONFIG_FILE)) {
-            GSON.toJson(instance, writer);
-            Blasphemy.LOGGER.info("成功保存配置文件");
-        } catch (IOException e) {
-            Blasphemy.LOGGER.error("保存配置文件失败", e);
-        }
+        ConfigSaver.schedule(getConfig());
+    }
+
+    /**
+     * 立即写出尚未保存的配置
+     */
+    public static void flushSave() {
+        ConfigSaver.flush();
+    }
+
+    static Gson gson() {
+        return GSON;
+    }
+
+    static void rememberContent(String content) {
+        lastContent = content;
+    }
+
+    static String getLastGoodContent() {
+        return lastGoodContent;
+    }
+
+    static void rememberGoodContent(String content) {
+        lastGoodContent = content;
     }
 
     /**
      * 获取配置实例
+     * 返回的对象发布后不应再修改，热路径应使用 snapshot()
      */
     public static ModConfig getConfig() {
-        if (instance == null) {
+        ModConfig current = instance;
+        if (current == null) {
             load();
+            current = instance;
         }
-        return instance;
+        return current;
+    }
+
+    /**
+     * 获取当前配置快照
+     * 连接到远程服务器时返回服务端同步的配置
+     */
+    public static ConfigSnapshot snapshot() {
+        ConfigSnapshot remote = remoteSnapshot;
+        if (remote != null) {
+            return remote;
+        }
+        ConfigSnapshot current = snapshot;
+        if (current == null) {
+            load();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    /**
+     * 配置文件路径
+     */
+    static Path getConfigPath() {
+        return CONFIG_FILE.toPath();
     }
 
     /**
@@ -132,6 +467,16 @@ public class ModConfig {
         public int maxLevel = 5;
     }
 
+    /**
+     * 范围技能配置类
+     */
+    public static class AoeConfig {
+        // 单次技能最多命中的目标数，按距离由近到远选取
+        public int maxTargets = 32;
+        // 每刻最多处理的目标数，超出的部分顺延到之后的刻
+        public int targetsPerTick = 16;
+    }
+
     /**
      * 传送门配置类
      */
@@ -140,6 +485,9 @@ public class ModConfig {
         public boolean supportVanillaItems = false;
         public List<String> portalBlocks = Arrays.asList("soulsweapons:crimson_obsidian");
         public String ignitionItem = "minecraft:nether_star";
+        // 在工作线程上验证传送门框架，结果在之后的服务器刻应用；
+        // 点击在提交时即被接受，验证失败时再重放原版的物品使用（如打火石放火、火焰弹被消耗）
+        public boolean asyncValidation = false;
         public PortalMessages messages = new PortalMessages();
 
         public static class PortalMessages {
@@ -147,4 +495,14 @@ public class ModConfig {
             public String invalidItem = "message.blasphemy.portal.invalid_item";
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 诊断追踪配置类
+     */
+    public static class DebugConfig {
+        // 开启追踪的子系统，可选 portal、ignition、block，默认全部关闭
+        public List<String> traceSubsystems = new ArrayList<>();
+        // 环形缓冲区保留的记录条数
+        public int traceBufferSize = 512;
+    }
+}
@@ -1,5 +1,6 @@
 package com.blasphemy.enchantment;
 
+import com.blasphemy.combat.CleaveEngine;
 import com.blasphemy.config.ModConfig;
 import net.minecraft.enchantment.Enchantment;
 import net.minecraft.enchantment.EnchantmentTarget;
@@ -7,17 +8,9 @@ import net.minecraft.entity.Entity;
 import net.minecraft.entity.EntityGroup;
 import net.minecraft.entity.EquipmentSlot;
 import net.minecraft.entity.LivingEntity;
-import net.minecraft.entity.attribute.EntityAttributes;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.SwordItem;
-import net.minecraft.particle.ParticleTypes;
-import net.minecraft.server.world.ServerWorld;
-import net.minecraft.text.Text;
-import net.minecraft.util.Formatting;
-import net.minecraft.util.math.Box;
-
-import java.util.List;
 
 /**
  * 群体斩击附魔
@@ -41,7 +34,7 @@ public class CleaveEnchantment extends Enchantment {
     
     @Override
     public int getMaxLevel() {
-        return ModConfig.getConfig().cleaveConfig.maxLevel;
+        return ModConfig.snapshot().cleave.maxLevel;
     }
     
     @Override
@@ -63,56 +56,12 @@ public class CleaveEnchantment extends Enchantment {
     
     /**
      * 应用群体斩击效果
+     * 同一刻内的多次触发由 CleaveEngine 合并，在刻末统一结算
      */
     public static void applyEffect(PlayerEntity player, LivingEntity target, int level) {
         if (level <= 0 || player.getWorld().isClient) {
             return;
         }
-        
-        // 获取范围和伤害
-        double range = ModConfig.getConfig().cleaveConfig.attackRange;
-        float baseMultiplier = ModConfig.getConfig().cleaveConfig.baseMultiplier;
-        float levelMultiplier = ModConfig.getConfig().cleaveConfig.levelMultiplier;
-        float damageMultiplier = baseMultiplier + (level * levelMultiplier);
-        
-        // 获取玩家攻击伤害
-        double attackDamage = player.getAttributeValue(EntityAttributes.GENERIC_ATTACK_DAMAGE);
-        float cleaveDamage = (float) (attackDamage * damageMultiplier);
-        
-        // 获取范围内的所有生物
-        List<Entity> entities = player.getWorld().getOtherEntities(player, 
-                new Box(target.getX() - range, target.getY() - range, target.getZ() - range,
-                        target.getX() + range, target.getY() + range, target.getZ() + range),
-                entity -> entity instanceof LivingEntity && entity != player && entity != target);
-        
-        if (!entities.isEmpty()) {
-            int hitCount = 0;
-            
-            // 应用效果到周围实体
-            for (Entity entity : entities) {
-                if (entity instanceof LivingEntity livingEntity && player.canSee(livingEntity)) {
-                    livingEntity.damage(player.getDamageSources().playerAttack(player), cleaveDamage);
-                    hitCount++;
-                    
-                    // 粒子效果
-                    if (player.getWorld() instanceof ServerWorld serverWorld) {
-                        serverWorld.spawnParticles(
-                                ParticleTypes.SWEEP_ATTACK,
-                                livingEntity.getX(), livingEntity.getY() + 0.5, livingEntity.getZ(),
-                                5, 0.2, 0.2, 0.2, 0
-                        );
-                    }
-                }
-            }
-            
-            // 通知玩家
-            if (hitCount > 0) {
-                player.sendMessage(
-                        Text.translatable("message.blasphemy.cleave.activate", hitCount)
-                                .formatted(Formatting.RED),
-                        true
-                );
-            }
-        }
+        CleaveEngine.trigger(player, target, level);
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
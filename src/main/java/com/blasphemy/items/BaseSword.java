@@ -1,35 +1,98 @@
 package com.blasphemy.items;
 
+import com.blasphemy.config.ConfigSnapshot;
+import com.blasphemy.config.ModConfig;
 import net.minecraft.client.item.TooltipContext;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.SwordItem;
 import net.minecraft.item.ToolMaterial;
 import net.minecraft.text.Text;
+import net.minecraft.util.Language;
 import net.minecraft.world.World;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * 基础剑类，提取共同功能
+ * 命中和右键效果在数据包 weapon_effects 目录中定义，见 WeaponEffects
  */
 public abstract class BaseSword extends SwordItem {
-    
+
+    // 语言或资源重新加载时递增，使所有缓存的提示行失效
+    private static volatile int tooltipGeneration;
+
     protected final String tooltipKey;
-    
+    // 配置数值行的翻译键，语言文件中没有该键时不显示
+    protected final String statsKey;
+
+    // 缓存的提示行及其对应的资源版本和配置快照，只在客户端线程上读写
+    private List<Text> tooltipLines;
+    private int tooltipLinesGeneration = -1;
+    private ConfigSnapshot tooltipConfig;
+
     public BaseSword(ToolMaterial material, int attackDamage, float attackSpeed, Settings settings, String id) {
         super(material, attackDamage, attackSpeed, settings);
         this.tooltipKey = "item.blasphemy." + id + ".tooltip";
+        this.statsKey = "item.blasphemy." + id + ".stats";
+    }
+
+    /**
+     * 使所有剑的提示行缓存失效，由客户端资源重新加载监听器调用
+     */
+    public static void invalidateTooltips() {
+        tooltipGeneration++;
     }
-    
+
     @Override
     public void appendTooltip(ItemStack stack, @Nullable World world, List<Text> tooltip, TooltipContext context) {
         super.appendTooltip(stack, world, tooltip, context);
-        
-        // 添加自定义描述，直接从语言文件获取
-        String[] lines = Text.translatable(tooltipKey).getString().split("\n");
-        for (String line : lines) {
-            tooltip.add(Text.literal(line));
+
+        // 添加自定义描述，语言文件中的多行文本只在语言或配置变化后重新拆分
+        tooltip.addAll(getTooltipLines());
+    }
+
+    private List<Text> getTooltipLines() {
+        ConfigSnapshot config = ModConfig.snapshot();
+        if (tooltipLines == null || tooltipLinesGeneration != tooltipGeneration || tooltipConfig != config) {
+            List<Text> lines = new ArrayList<>();
+            appendLines(lines, Text.translatable(tooltipKey).getString());
+            if (Language.getInstance().hasTranslation(statsKey)) {
+                appendLines(lines, Text.translatable(statsKey, getTooltipStats(config)).getString());
+            }
+            tooltipLines = List.copyOf(lines);
+            tooltipLinesGeneration = tooltipGeneration;
+            tooltipConfig = config;
         }
+        return tooltipLines;
+    }
+
+    private static void appendLines(List<Text> lines, String translated) {
+        for (String line : translated.split("\n")) {
+            lines.add(Text.literal(line));
+        }
+    }
+
+    /**
+     * 配置数值行的参数，按语言文件中 stats 键的占位符顺序排列
+     */
+    protected Object[] getTooltipStats(ConfigSnapshot config) {
+        return new Object[0];
+    }
+
+    /**
+     * 把比例格式化为百分比文本
+     */
+    protected static String percent(float ratio) {
+        return String.format(Locale.ROOT, "%.0f%%", ratio * 100);
+    }
+
+    /**
+     * 格式化数值，整数不显示小数
+     */
+    protected static String number(float value) {
+        return value == Math.rint(value) ? String.valueOf((int) value) : String.format(Locale.ROOT, "%.1f", value);
     }
-} 
\ No newline at end of file
+}
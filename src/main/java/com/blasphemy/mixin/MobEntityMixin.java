@@ -0,0 +1,27 @@
+package com.blasphemy.mixin;
+
+import com.blasphemy.combat.WeaponDamage;
+import com.llamalad7.mixinextras.injector.wrapoperation.Operation;
+import com.llamalad7.mixinextras.injector.wrapoperation.WrapOperation;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.damage.DamageSource;
+import net.minecraft.entity.mob.MobEntity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+
+/**
+ * 生物的Mixin
+ * 手持武器的生物近战攻击时同样经过武器伤害管线，与玩家的攻击效果一致
+ */
+@Mixin(MobEntity.class)
+public class MobEntityMixin {
+    /**
+     * 包装近战攻击的伤害调用
+     */
+    @WrapOperation(method = "tryAttack", at = @At(value = "INVOKE",
+            target = "Lnet/minecraft/entity/Entity;damage(Lnet/minecraft/entity/damage/DamageSource;F)Z"))
+    private boolean onAttackDamage(Entity target, DamageSource source, float amount, Operation<Boolean> original) {
+        return WeaponDamage.apply((MobEntity) (Object) this, target, amount,
+                total -> original.call(target, source, total));
+    }
+}
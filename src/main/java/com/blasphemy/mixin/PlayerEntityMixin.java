@@ -0,0 +1,27 @@
+package com.blasphemy.mixin;
+
+import com.blasphemy.combat.WeaponDamage;
+import com.llamalad7.mixinextras.injector.wrapoperation.Operation;
+import com.llamalad7.mixinextras.injector.wrapoperation.WrapOperation;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.damage.DamageSource;
+import net.minecraft.entity.player.PlayerEntity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+
+/**
+ * 玩家的Mixin
+ * 在近战攻击的伤害调用处接入武器伤害管线，使额外伤害并入同一次攻击
+ */
+@Mixin(PlayerEntity.class)
+public class PlayerEntityMixin {
+    /**
+     * 包装主目标的伤害调用，横扫攻击的伤害调用不受影响
+     */
+    @WrapOperation(method = "attack", at = @At(value = "INVOKE",
+            target = "Lnet/minecraft/entity/Entity;damage(Lnet/minecraft/entity/damage/DamageSource;F)Z"))
+    private boolean onAttackDamage(Entity target, DamageSource source, float amount, Operation<Boolean> original) {
+        return WeaponDamage.apply((PlayerEntity) (Object) this, target, amount,
+                total -> original.call(target, source, total));
+    }
+}
@@ -0,0 +1,41 @@
+package com.blasphemy.mixin;
+
+import com.blasphemy.util.CooldownService;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.server.network.ServerPlayerEntity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * 服务端玩家的Mixin
+ * 为玩家实体附加技能冷却数据，并随玩家数据一起保存和读取
+ */
+@Mixin(ServerPlayerEntity.class)
+public class ServerPlayerEntityMixin implements CooldownService.Holder {
+    @Unique
+    private final CooldownService.Store blasphemy$cooldowns = new CooldownService.Store();
+
+    @Override
+    public CooldownService.Store blasphemy$getCooldowns() {
+        return blasphemy$cooldowns;
+    }
+
+    /**
+     * 保存玩家数据时写入冷却
+     */
+    @Inject(method = "writeCustomDataToNbt", at = @At("TAIL"))
+    private void onWriteCustomData(NbtCompound nbt, CallbackInfo ci) {
+        CooldownService.writeNbt((ServerPlayerEntity) (Object) this, nbt);
+    }
+
+    /**
+     * 读取玩家数据时恢复冷却
+     */
+    @Inject(method = "readCustomDataFromNbt", at = @At("TAIL"))
+    private void onReadCustomData(NbtCompound nbt, CallbackInfo ci) {
+        CooldownService.readNbt((ServerPlayerEntity) (Object) this, nbt);
+    }
+}
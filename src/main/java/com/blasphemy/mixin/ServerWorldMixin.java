@@ -0,0 +1,28 @@
+package com.blasphemy.mixin;
+
+import com.blasphemy.portal.PortalFailureCache;
+import com.blasphemy.portal.PortalIndex;
+import net.minecraft.block.BlockState;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * 服务端世界的Mixin
+ * 将方块变化转发给传送门点火失败缓存和传送门索引，使失效的记录及时清除
+ */
+@Mixin(ServerWorld.class)
+public class ServerWorldMixin {
+    /**
+     * 方块状态发生变化后通知失败缓存和传送门索引
+     */
+    @Inject(method = "onBlockChanged", at = @At("HEAD"))
+    private void onBlockChanged(BlockPos pos, BlockState oldBlock, BlockState newBlock, CallbackInfo ci) {
+        ServerWorld world = (ServerWorld) (Object) this;
+        PortalFailureCache.onBlockChanged(world, pos);
+        PortalIndex.onBlockChanged(world, pos, oldBlock, newBlock);
+    }
+}
@@ -0,0 +1,197 @@
+package com.blasphemy.portal;
+
+import com.blasphemy.Blasphemy;
+import com.blasphemy.config.ModConfig;
+import com.blasphemy.util.DebugTrace;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.ItemUsageContext;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.text.Text;
+import net.minecraft.util.Formatting;
+import net.minecraft.util.Hand;
+import net.minecraft.util.hit.BlockHitResult;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 异步传送门验证
+ * 服务器线程只负责捕获检测窗口的区段快照，框架检测在工作线程上进行，
+ * 检测成功后在服务器线程上复核框架仍然完整，再创建传送门。
+ * 提交时点击已被接受，验证失败时在服务器线程上重放原版的物品使用，
+ * 使打火石和火焰弹与同步模式一样在非传送门框架上照常生效。
+ * 由 PortalConfig.asyncValidation 开启。
+ */
+public class AsyncPortalValidator {
+
+    private static final int WORKER_THREADS = 2;
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    // 每个维度正在验证中的点击位置，避免同一位置被重复提交
+    private static final Map<RegistryKey<World>, Set<Long>> PENDING = new ConcurrentHashMap<>();
+
+    private static volatile ExecutorService executor;
+
+    // 正在重放原版物品使用，此时不再处理自定义点火
+    private static boolean replaying;
+
+    /**
+     * 初始化工作线程池的生命周期
+     */
+    public static void init() {
+        ServerLifecycleEvents.SERVER_STARTING.register(server -> executor = Executors.newFixedThreadPool(
+                WORKER_THREADS, runnable -> {
+                    Thread thread = new Thread(runnable,
+                            "Blasphemy-Portal-Worker-" + THREAD_COUNTER.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> {
+            ExecutorService current = executor;
+            executor = null;
+            if (current != null) {
+                current.shutdownNow();
+            }
+            PENDING.clear();
+        });
+    }
+
+    /**
+     * 是否启用异步验证
+     */
+    public static boolean isEnabled() {
+        return ModConfig.snapshot().portal.asyncValidation && executor != null;
+    }
+
+    /**
+     * 是否正在重放验证失败后的原版物品使用
+     */
+    public static boolean isReplaying() {
+        return replaying;
+    }
+
+    /**
+     * 提交一次点火请求
+     * 调用时点火物品和点击方块已经检查通过
+     *
+     * @param hit 点击的方块，验证失败时用于重放原版物品使用
+     * @return 请求是否已被接受
+     */
+    public static boolean submit(ServerWorld world, BlockHitResult hit, PlayerEntity player, ItemStack stack, Hand hand) {
+        BlockPos pos = hit.getBlockPos();
+        ExecutorService current = executor;
+        if (current == null) {
+            return false;
+        }
+
+        Set<Long> pending = PENDING.computeIfAbsent(world.getRegistryKey(), key -> ConcurrentHashMap.newKeySet());
+        if (!pending.add(pos.asLong())) {
+            DebugTrace.trace(DebugTrace.Subsystem.PORTAL, "位置 {} 已在验证中，忽略重复请求", pos);
+            return true;
+        }
+
+        // 从捕获快照开始监视窗口，工作线程检测期间的方块变化会使失败结果不被缓存
+        PortalFailureCache.Ticket ticket = PortalFailureCache.begin(world, pos);
+        PortalSectionSnapshot snapshot = PortalSectionSnapshot.capture(world, pos);
+        MinecraftServer server = world.getServer();
+        try {
+            current.execute(() -> {
+                PortalFrameDetector detector = PortalFrameValidator.getDetector();
+                PortalFrameValidator.PortalFrameResult result;
+                PortalFailureCache.Diagnosis diagnosis = null;
+                try {
+                    result = detector.detect(snapshot, pos);
+                    if (result == null && !snapshot.hasMissingChunk()) {
+                        diagnosis = PortalFailureCache.Diagnosis.of(detector);
+                    }
+                } catch (RuntimeException e) {
+                    Blasphemy.LOGGER.error("异步验证传送门框架失败", e);
+                    result = null;
+                }
+                PortalFrameValidator.PortalFrameResult found = result;
+                PortalFailureCache.Diagnosis failure = diagnosis;
+                server.execute(() -> apply(world, hit, player, stack, hand, found, ticket, failure));
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(pos.asLong());
+            PortalFailureCache.discard(ticket);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 在服务器线程上应用验证结果
+     */
+    private static void apply(ServerWorld world, BlockHitResult hit, PlayerEntity player, ItemStack stack, Hand hand,
+            PortalFrameValidator.PortalFrameResult result, PortalFailureCache.Ticket ticket,
+            PortalFailureCache.Diagnosis diagnosis) {
+        BlockPos pos = hit.getBlockPos();
+        Set<Long> pending = PENDING.get(world.getRegistryKey());
+        if (pending != null) {
+            pending.remove(pos.asLong());
+        }
+
+        // 只缓存完整窗口上的失败结果
+        if (diagnosis != null) {
+            PortalFailureCache.complete(ticket, diagnosis);
+        } else {
+            PortalFailureCache.discard(ticket);
+        }
+
+        // 玩家已离线，放弃本次点火
+        if (player.isRemoved()) {
+            return;
+        }
+
+        // 验证期间玩家换了维度、移走或切换了点火物品，放弃本次点火，避免由错误的物品支付
+        if (player.getWorld() != world || player.getStackInHand(hand) != stack
+                || !IgnitionDispatcher.isIgnitionItem(stack)) {
+            DebugTrace.trace(DebugTrace.Subsystem.PORTAL, "验证期间点火物品已变化，放弃点火：{}", pos);
+            return;
+        }
+
+        if (result == null) {
+            DebugTrace.trace(DebugTrace.Subsystem.PORTAL, "异步验证未找到有效的传送门框架：{}", pos);
+            player.sendMessage(Text.literal("未找到有效的传送门框架").formatted(Formatting.RED), true);
+            replayVanillaUse(player, hand, hit);
+            return;
+        }
+
+        // 快照之后世界可能已经变化，只复核该矩形本身
+        if (!PortalFrameValidator.getDetector().verify(PortalBlockAccess.begin(world), result)) {
+            DebugTrace.trace(DebugTrace.Subsystem.PORTAL, "验证期间传送门框架已被修改：{}", pos);
+            player.sendMessage(Text.literal("未找到有效的传送门框架").formatted(Formatting.RED), true);
+            replayVanillaUse(player, hand, hit);
+            return;
+        }
+
+        PortalFrameValidator.createPortal(world, result);
+        PortalFrameValidator.consumeIgnitionItem(player, stack, hand);
+        player.sendMessage(Text.literal("传送门已激活！").formatted(Formatting.GREEN), true);
+    }
+
+    /**
+     * 验证失败后重放原版的物品使用，与同步模式下点火失败后交给原版处理一致
+     * 例如打火石在方块上放置火焰、火焰弹被消耗
+     */
+    private static void replayVanillaUse(PlayerEntity player, Hand hand, BlockHitResult hit) {
+        replaying = true;
+        try {
+            player.getStackInHand(hand).useOnBlock(new ItemUsageContext(player, hand, hit));
+        } finally {
+            replaying = false;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.blasphemy.portal;
+
+import com.blasphemy.Blasphemy;
+import com.blasphemy.config.ModConfig;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.registry.Registries;
+import net.minecraft.registry.RegistryKeys;
+import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.registry.tag.TagKey;
+import net.minecraft.util.Identifier;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 传送门框架方块匹配器
+ * 由配置中的方块ID和 #标签 一次性编译为方块引用集合，
+ * 查询时只做一次身份哈希查找，不再进行注册表ID字符串比较
+ */
+public final class FrameBlockMatcher {
+
+    // 当前生效的匹配器，重建时整体替换
+    private static volatile FrameBlockMatcher current = new FrameBlockMatcher(new ReferenceOpenHashSet<>());
+
+    private final Set<Block> blocks;
+
+    private FrameBlockMatcher(Set<Block> blocks) {
+        this.blocks = blocks;
+    }
+
+    /**
+     * 获取当前生效的匹配器
+     */
+    public static FrameBlockMatcher get() {
+        return current;
+    }
+
+    /**
+     * 根据当前配置重建匹配器
+     * 新匹配器构建完成后才会替换旧实例，读取方不会看到半成品
+     */
+    public static void rebuild() {
+        List<String> entries = ModConfig.snapshot().portal.portalBlocks;
+        ReferenceOpenHashSet<Block> blocks = new ReferenceOpenHashSet<>();
+
+        if (entries != null) {
+            for (String entry : entries) {
+                if (entry == null || entry.isEmpty()) {
+                    continue;
+                }
+
+                // 以 # 开头的条目为方块标签，展开为标签内的全部方块
+                if (entry.startsWith("#")) {
+                    Identifier tagId = Identifier.tryParse(entry.substring(1));
+                    if (tagId == null) {
+                        Blasphemy.LOGGER.warn("无效的传送门框架方块标签：{}", entry);
+                        continue;
+                    }
+                    TagKey<Block> tag = TagKey.of(RegistryKeys.BLOCK, tagId);
+                    for (RegistryEntry<Block> blockEntry : Registries.BLOCK.iterateEntries(tag)) {
+                        blocks.add(blockEntry.value());
+                    }
+                    continue;
+                }
+
+                Identifier blockId = Identifier.tryParse(entry);
+                // 方块注册表带默认值，未注册的ID会返回空气，必须先判断是否存在
+                if (blockId == null || !Registries.BLOCK.containsId(blockId)) {
+                    Blasphemy.LOGGER.warn("未找到传送门框架方块：{}", entry);
+                    continue;
+                }
+                blocks.add(Registries.BLOCK.get(blockId));
+            }
+        }
+
+        blocks.trim();
+        current = new FrameBlockMatcher(blocks);
+        Blasphemy.LOGGER.info("传送门框架方块匹配器已重建，共 {} 种方块", blocks.size());
+    }
+
+    /**
+     * 方块状态是否是有效的框架方块
+     */
+    public boolean matches(BlockState state) {
+        return blocks.contains(state.getBlock());
+    }
+
+    /**
+     * 方块是否是有效的框架方块
+     */
+    public boolean matches(Block block) {
+        return blocks.contains(block);
+    }
+
+    /**
+     * 配置中是否允许黑曜石作为框架方块
+     */
+    public boolean allowsObsidian() {
+        return blocks.contains(Blocks.OBSIDIAN);
+    }
+
+    /**
+     * 匹配的方块种类数量
+     */
+    public int size() {
+        return blocks.size();
+    }
+}
@@ -0,0 +1,102 @@
+package com.blasphemy.portal;
+
+import com.blasphemy.Blasphemy;
+import com.blasphemy.config.ConfigSnapshot;
+import com.blasphemy.config.ModConfig;
+import com.blasphemy.util.DebugTrace;
+import net.fabricmc.fabric.api.event.player.UseBlockCallback;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.ItemUsageContext;
+import net.minecraft.item.Items;
+import net.minecraft.util.ActionResult;
+import net.minecraft.util.Hand;
+import net.minecraft.util.hit.BlockHitResult;
+import net.minecraft.world.World;
+
+/**
+ * 自定义点火物品分发
+ * 配置中的点火物品在配置快照中预先解析为 Item 引用，
+ * 通过 UseBlockCallback 接管点火，非点火物品只需一次引用比较即可返回。
+ * 打火石和火焰弹由各自的 Mixin 处理。
+ */
+public class IgnitionDispatcher {
+
+    /**
+     * 注册点火回调
+     */
+    public static void init() {
+        checkIgnitionItem();
+        ModConfig.addReloadListener(IgnitionDispatcher::checkIgnitionItem);
+        UseBlockCallback.EVENT.register(IgnitionDispatcher::onUseBlock);
+    }
+
+    /**
+     * 配置的点火物品无法解析时给出警告
+     */
+    private static void checkIgnitionItem() {
+        ConfigSnapshot.Portal portal = ModConfig.snapshot().portal;
+        if (portal.ignitionItem == null) {
+            Blasphemy.LOGGER.warn("无法解析配置的点火物品：{}", portal.ignitionItemId);
+        }
+    }
+
+    /**
+     * 获取配置的点火物品
+     */
+    public static Item getIgnitionItem() {
+        return ModConfig.snapshot().portal.ignitionItem;
+    }
+
+    /**
+     * 物品是否是有效的点火物品
+     */
+    public static boolean isIgnitionItem(ItemStack stack) {
+        if (stack.isEmpty()) {
+            return false;
+        }
+
+        Item item = stack.getItem();
+        ConfigSnapshot.Portal portal = ModConfig.snapshot().portal;
+        if (item == portal.ignitionItem) {
+            return true;
+        }
+
+        // 如果未启用自定义，或明确设置支持原版，则支持打火石和火焰弹
+        if (!portal.enabled || portal.supportVanillaItems) {
+            return item == Items.FLINT_AND_STEEL || item == Items.FIRE_CHARGE;
+        }
+        return false;
+    }
+
+    private static ActionResult onUseBlock(PlayerEntity player, World world, Hand hand, BlockHitResult hitResult) {
+        Item item = player.getStackInHand(hand).getItem();
+        ConfigSnapshot.Portal portal = ModConfig.snapshot().portal;
+        if (item != portal.ignitionItem || item == Items.FLINT_AND_STEEL || item == Items.FIRE_CHARGE) {
+            return ActionResult.PASS;
+        }
+
+        // 客户端交给服务端处理
+        if (world.isClient || !portal.enabled) {
+            return ActionResult.PASS;
+        }
+
+        // 该事件早于原版的旁观者和冒险模式检查，这里补上同样的限制
+        if (player.isSpectator() || !player.canModifyBlocks()) {
+            return ActionResult.PASS;
+        }
+
+        // 点击的不是框架方块时不做处理
+        if (!FrameBlockMatcher.get().matches(world.getBlockState(hitResult.getBlockPos()))) {
+            return ActionResult.PASS;
+        }
+
+        if (PortalFrameValidator.tryIgnitePortal(new ItemUsageContext(player, hand, hitResult))) {
+            return ActionResult.SUCCESS;
+        }
+
+        DebugTrace.trace(DebugTrace.Subsystem.IGNITION, "自定义物品点燃失败：{}", hitResult.getBlockPos());
+        return ActionResult.PASS;
+    }
+}
@@ -0,0 +1,149 @@
+package com.blasphemy.portal;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.fluid.FluidState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.BlockView;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.ChunkStatus;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * 传送门扫描使用的方块读取层
+ * 每次扫描中每个区块只解析一次，方块状态直接从 ChunkSection 的调色板读取，
+ * 避免 World.getBlockState 每次重新查找区块和区段。
+ * 永远不会触发区块加载：未加载的区块读作屏障方块，使扫描在此处立即失败。
+ */
+public class PortalBlockAccess implements BlockView {
+
+    // 未加载区块中的方块：既不是框架也不是空气
+    private static final BlockState UNLOADED = Blocks.BARRIER.getDefaultState();
+    // 空区段中的方块
+    private static final BlockState AIR = Blocks.AIR.getDefaultState();
+    // 超出世界高度的方块
+    private static final BlockState OUTSIDE = Blocks.VOID_AIR.getDefaultState();
+
+    // 每个线程复用一个实例
+    private static final ThreadLocal<PortalBlockAccess> LOCAL = ThreadLocal.withInitial(PortalBlockAccess::new);
+
+    private final Long2ObjectOpenHashMap<Chunk> chunks = new Long2ObjectOpenHashMap<>();
+    private final LongOpenHashSet missingChunks = new LongOpenHashSet();
+    private World world;
+    private long lastSectionKey;
+    private ChunkSection lastSection;
+
+    private PortalBlockAccess() {
+    }
+
+    /**
+     * 开始一次新的扫描
+     * 返回当前线程复用的实例，上一次扫描缓存的区块会被清空
+     */
+    public static PortalBlockAccess begin(World world) {
+        PortalBlockAccess access = LOCAL.get();
+        access.world = world;
+        access.chunks.clear();
+        access.missingChunks.clear();
+        access.lastSectionKey = Long.MIN_VALUE;
+        access.lastSection = null;
+        return access;
+    }
+
+    @Override
+    public BlockState getBlockState(BlockPos pos) {
+        return getBlockState(pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    /**
+     * 读取指定坐标的方块状态
+     */
+    public BlockState getBlockState(int x, int y, int z) {
+        if (world.isOutOfHeightLimit(y)) {
+            return OUTSIDE;
+        }
+
+        int chunkX = x >> 4;
+        int chunkZ = z >> 4;
+        long sectionKey = ChunkSectionPos.asLong(chunkX, y >> 4, chunkZ);
+        if (sectionKey != lastSectionKey) {
+            Chunk chunk = getChunk(chunkX, chunkZ);
+            if (chunk == null) {
+                return UNLOADED;
+            }
+            lastSection = chunk.getSection(world.getSectionIndex(y));
+            lastSectionKey = sectionKey;
+        }
+
+        if (lastSection.isEmpty()) {
+            return AIR;
+        }
+        return lastSection.getBlockState(x & 15, y & 15, z & 15);
+    }
+
+    /**
+     * 获取已加载的区块，未加载时返回null且不会触发加载
+     */
+    @Nullable
+    private Chunk getChunk(int chunkX, int chunkZ) {
+        long chunkKey = ChunkPos.toLong(chunkX, chunkZ);
+        Chunk chunk = chunks.get(chunkKey);
+        if (chunk != null) {
+            return chunk;
+        }
+        if (missingChunks.contains(chunkKey)) {
+            return null;
+        }
+
+        chunk = world.getChunk(chunkX, chunkZ, ChunkStatus.FULL, false);
+        if (chunk == null) {
+            missingChunks.add(chunkKey);
+            return null;
+        }
+        chunks.put(chunkKey, chunk);
+        return chunk;
+    }
+
+    /**
+     * 本次扫描是否遇到了未加载的区块
+     */
+    public boolean hasMissingChunk() {
+        return !missingChunks.isEmpty();
+    }
+
+    /**
+     * 本次扫描所在的世界
+     */
+    public World getWorld() {
+        return world;
+    }
+
+    @Nullable
+    @Override
+    public BlockEntity getBlockEntity(BlockPos pos) {
+        // 传送门扫描不需要方块实体
+        return null;
+    }
+
+    @Override
+    public FluidState getFluidState(BlockPos pos) {
+        return getBlockState(pos).getFluidState();
+    }
+
+    @Override
+    public int getHeight() {
+        return world.getHeight();
+    }
+
+    @Override
+    public int getBottomY() {
+        return world.getBottomY();
+    }
+}
@@ -0,0 +1,166 @@
+package com.blasphemy.portal;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.shorts.ShortOpenHashSet;
+import net.fabricmc.fabric.api.networking.v1.PlayerLookup;
+import net.minecraft.block.BlockState;
+import net.minecraft.network.packet.s2c.play.ChunkDeltaUpdateS2CPacket;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.Direction;
+import net.minecraft.world.Heightmap;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.ChunkStatus;
+import net.minecraft.world.chunk.light.LightingProvider;
+
+/**
+ * 传送门方块批量写入器
+ * 先收集一批方块修改，再直接写入 ChunkSection：
+ * 每个区段只发送一个 ChunkDeltaUpdateS2CPacket，
+ * 批量写入完成后只对批次外侧的相邻方块做一次邻居更新，
+ * 批次内的方块之间不会互相触发更新。
+ * 不会触发区块加载，未加载区块中的修改会被丢弃。
+ */
+public class PortalBlockWriter {
+
+    private static final Heightmap.Type[] HEIGHTMAPS = {
+            Heightmap.Type.MOTION_BLOCKING,
+            Heightmap.Type.MOTION_BLOCKING_NO_LEAVES,
+            Heightmap.Type.OCEAN_FLOOR,
+            Heightmap.Type.WORLD_SURFACE
+    };
+
+    private final ServerWorld world;
+    // 待写入的修改，保持加入顺序
+    private final Long2ObjectLinkedOpenHashMap<BlockState> pending = new Long2ObjectLinkedOpenHashMap<>();
+
+    public PortalBlockWriter(ServerWorld world) {
+        this.world = world;
+    }
+
+    /**
+     * 加入一个待写入的方块修改
+     */
+    public void set(BlockPos pos, BlockState state) {
+        pending.put(pos.asLong(), state);
+    }
+
+    /**
+     * 加入一个待写入的方块修改
+     */
+    public void set(long pos, BlockState state) {
+        pending.put(pos, state);
+    }
+
+    /**
+     * 待写入的修改数量
+     */
+    public int size() {
+        return pending.size();
+    }
+
+    /**
+     * 写入全部修改并同步给客户端
+     *
+     * @return 实际发生变化的方块数量
+     */
+    public int flush() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        LightingProvider lighting = world.getChunkManager().getLightingProvider();
+        Long2ObjectOpenHashMap<ShortOpenHashSet> changedBySection = new Long2ObjectOpenHashMap<>();
+        Long2ObjectOpenHashMap<ChunkSection> sections = new Long2ObjectOpenHashMap<>();
+        Long2ObjectOpenHashMap<BlockState> replaced = new Long2ObjectOpenHashMap<>();
+        BlockPos.Mutable cursor = new BlockPos.Mutable();
+
+        for (Long2ObjectMap.Entry<BlockState> change : pending.long2ObjectEntrySet()) {
+            long packed = change.getLongKey();
+            BlockState state = change.getValue();
+            cursor.set(packed);
+            if (world.isOutOfHeightLimit(cursor)) {
+                continue;
+            }
+
+            Chunk chunk = world.getChunk(cursor.getX() >> 4, cursor.getZ() >> 4, ChunkStatus.FULL, false);
+            if (chunk == null) {
+                continue;
+            }
+
+            ChunkSection section = chunk.getSection(world.getSectionIndex(cursor.getY()));
+            boolean wasEmpty = section.isEmpty();
+            BlockState old = section.setBlockState(cursor.getX() & 15, cursor.getY() & 15, cursor.getZ() & 15, state);
+            if (old == state) {
+                continue;
+            }
+
+            for (Heightmap.Type type : HEIGHTMAPS) {
+                chunk.getHeightmap(type).trackUpdate(cursor.getX() & 15, cursor.getY(), cursor.getZ() & 15, state);
+            }
+            if (wasEmpty != section.isEmpty()) {
+                lighting.setSectionStatus(cursor, section.isEmpty());
+            }
+            lighting.checkBlock(cursor);
+            chunk.setNeedsSaving(true);
+
+            BlockPos immutable = cursor.toImmutable();
+            // 维护兴趣点（传送门方块是下界传送门的兴趣点，用于传送门链接）
+            world.onBlockChanged(immutable, old, state);
+
+            long sectionKey = ChunkSectionPos.toLong(immutable);
+            ShortOpenHashSet changed = changedBySection.get(sectionKey);
+            if (changed == null) {
+                changed = new ShortOpenHashSet();
+                changedBySection.put(sectionKey, changed);
+                sections.put(sectionKey, section);
+            }
+            changed.add(ChunkSectionPos.packLocal(immutable));
+            replaced.put(packed, old);
+        }
+        pending.clear();
+
+        // 每个区段发送一个增量更新包
+        for (Long2ObjectMap.Entry<ShortOpenHashSet> entry : changedBySection.long2ObjectEntrySet()) {
+            ChunkSectionPos sectionPos = ChunkSectionPos.from(entry.getLongKey());
+            ChunkDeltaUpdateS2CPacket packet = new ChunkDeltaUpdateS2CPacket(sectionPos, entry.getValue(),
+                    sections.get(entry.getLongKey()));
+            ChunkPos chunkPos = sectionPos.toChunkPos();
+            for (ServerPlayerEntity player : PlayerLookup.tracking(world, chunkPos)) {
+                player.networkHandler.sendPacket(packet);
+            }
+        }
+
+        notifyOutsideNeighbors(replaced);
+        return replaced.size();
+    }
+
+    /**
+     * 对批次外侧的相邻方块做一次邻居更新
+     */
+    private void notifyOutsideNeighbors(Long2ObjectOpenHashMap<BlockState> replaced) {
+        LongOpenHashSet notified = new LongOpenHashSet();
+        BlockPos.Mutable neighbor = new BlockPos.Mutable();
+        for (Long2ObjectMap.Entry<BlockState> entry : replaced.long2ObjectEntrySet()) {
+            BlockPos source = BlockPos.fromLong(entry.getLongKey());
+            for (Direction direction : Direction.values()) {
+                neighbor.set(source, direction);
+                long neighborKey = neighbor.asLong();
+                if (replaced.containsKey(neighborKey) || !notified.add(neighborKey)) {
+                    continue;
+                }
+                if (!world.isChunkLoaded(neighbor.getX() >> 4, neighbor.getZ() >> 4)) {
+                    continue;
+                }
+                world.updateNeighbor(neighbor.toImmutable(), entry.getValue().getBlock(), source);
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.blasphemy.portal;
+
+import com.blasphemy.Blasphemy;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.block.NetherPortalBlock;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Direction;
+
+/**
+ * 传送门坍塌处理
+ * 从被破坏的方块出发，沿传送门平面做连通域填充，
+ * 只移除真正与之相连的那一片传送门方块，再一次性批量写入。
+ * 不会波及附近无关的传送门。
+ */
+public class PortalCollapser {
+
+    // 单个连通域的方块数量上限（最大传送门内部为 21x21）
+    private static final int MAX_COMPONENT_SIZE = (PortalFrameValidator.MAX_PORTAL_WIDTH - 2)
+            * (PortalFrameValidator.MAX_PORTAL_HEIGHT - 2);
+
+    private static final Direction[] X_PLANE = {Direction.UP, Direction.DOWN, Direction.EAST, Direction.WEST};
+    private static final Direction[] Z_PLANE = {Direction.UP, Direction.DOWN, Direction.SOUTH, Direction.NORTH};
+
+    /**
+     * 处理方块被破坏后的传送门坍塌
+     *
+     * @param pos   被破坏方块的位置
+     * @param state 被破坏前的方块状态
+     * @return 移除的传送门方块数量
+     */
+    public static int collapse(ServerWorld world, BlockPos pos, BlockState state) {
+        PortalBlockAccess access = PortalBlockAccess.begin(world);
+        PortalBlockWriter writer = new PortalBlockWriter(world);
+        LongOpenHashSet visited = new LongOpenHashSet();
+
+        if (state.getBlock() == Blocks.NETHER_PORTAL) {
+            // 破坏的是传送门方块：只沿它自身所在的平面填充
+            Direction.Axis axis = state.get(NetherPortalBlock.AXIS);
+            for (Direction direction : planeDirections(axis)) {
+                fill(access, writer, visited, pos.offset(direction), axis);
+            }
+        } else {
+            // 破坏的是框架方块：从六个方向上相邻的传送门方块开始填充
+            for (Direction direction : Direction.values()) {
+                BlockPos neighbor = pos.offset(direction);
+                BlockState neighborState = access.getBlockState(neighbor);
+                if (neighborState.getBlock() == Blocks.NETHER_PORTAL) {
+                    fill(access, writer, visited, neighbor, neighborState.get(NetherPortalBlock.AXIS));
+                }
+            }
+        }
+
+        int count = writer.flush();
+        if (count > 0) {
+            Blasphemy.LOGGER.info("传送门坍塌：在 {} 附近移除了 {} 个传送门方块", pos, count);
+        }
+        return count;
+    }
+
+    /**
+     * 从起点开始沿指定轴向的平面填充同轴向的传送门方块
+     */
+    private static void fill(PortalBlockAccess access, PortalBlockWriter writer, LongOpenHashSet visited,
+            BlockPos start, Direction.Axis axis) {
+        Direction[] directions = planeDirections(axis);
+        LongArrayFIFOQueue queue = new LongArrayFIFOQueue();
+        BlockPos.Mutable cursor = new BlockPos.Mutable();
+        BlockState air = Blocks.AIR.getDefaultState();
+        int count = 0;
+
+        queue.enqueue(start.asLong());
+        while (!queue.isEmpty() && count < MAX_COMPONENT_SIZE) {
+            long packed = queue.dequeueLong();
+            if (!visited.add(packed)) {
+                continue;
+            }
+
+            cursor.set(packed);
+            BlockState current = access.getBlockState(cursor);
+            if (current.getBlock() != Blocks.NETHER_PORTAL || current.get(NetherPortalBlock.AXIS) != axis) {
+                continue;
+            }
+
+            writer.set(packed, air);
+            count++;
+            for (Direction direction : directions) {
+                queue.enqueue(BlockPos.offset(packed, direction));
+            }
+        }
+    }
+
+    /**
+     * 传送门平面内的四个方向
+     */
+    private static Direction[] planeDirections(Direction.Axis axis) {
+        return axis == Direction.Axis.X ? X_PLANE : Z_PLANE;
+    }
+}
@@ -1,12 +1,14 @@
 package com.blasphemy.portal;
 
 import com.blasphemy.Blasphemy;
+import com.blasphemy.BlasphemyMixinPlugin;
 import net.fabricmc.fabric.api.item.v1.FabricItemSettings;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemUsageContext;
 import net.minecraft.registry.Registries;
 import net.minecraft.registry.Registry;
+import net.minecraft.server.world.ServerWorld;
 import net.minecraft.text.Text;
 import net.minecraft.util.ActionResult;
 import net.minecraft.util.Formatting;
@@ -50,6 +52,24 @@ public class PortalDebugTool extends Item {
             return ActionResult.PASS;
         }
 
+        // 传送门子系统关闭时框架匹配器和索引都没有初始化
+        if (!BlasphemyMixinPlugin.isPortalEnabled()) {
+            player.sendMessage(Text.literal("§c传送门子系统已关闭"), false);
+            return ActionResult.SUCCESS;
+        }
+
+        // 先查询传送门索引，已记录的传送门无需重新扫描
+        if (world instanceof ServerWorld serverWorld) {
+            PortalFrameValidator.PortalFrameResult entry = PortalIndex.find(serverWorld, pos);
+            if (entry != null) {
+                BlockPos origin = entry.getBottomLeft();
+                player.sendMessage(Text.literal(String.format(
+                        "§b此位置属于已记录的传送门: 宽度=%d, 高度=%d, 轴向=%s, 左下角=(%d, %d, %d)",
+                        entry.width, entry.height, entry.axis, origin.getX(), origin.getY(), origin.getZ())), false);
+                return ActionResult.SUCCESS;
+            }
+        }
+
         // 检查方块是否是有效的框架方块
         if (PortalFrameValidator.isValidFrameBlock(world, pos)) {
             player.sendMessage(Text.literal("§a这是一个有效的传送门框架方块!"), false);
@@ -78,81 +98,10 @@ public class PortalDebugTool extends Item {
             // 尝试提供额外诊断信息
             player.sendMessage(Text.literal("§e开始诊断..."), false);
 
-            // 检查方向
-            for (Direction direction : Direction.Type.HORIZONTAL) {
-                Direction.Axis axis = direction.getAxis() == Direction.Axis.X ? Direction.Axis.Z : Direction.Axis.X;
-                Direction sideDirection = Direction.from(axis, Direction.AxisDirection.POSITIVE);
-
-                // 尝试找到框架的左下角
-                BlockPos bottomLeft = tryFindBottomLeft(world, pos, sideDirection);
-                if (bottomLeft != null) {
-                    int width = measureWidth(world, bottomLeft, sideDirection);
-                    int height = measureHeight(world, bottomLeft);
-
-                    player.sendMessage(Text.literal(String.format(
-                            "§e方向=%s: 找到可能的框架，位置=(%d,%d,%d), 宽度=%d, 高度=%d",
-                            direction, bottomLeft.getX(), bottomLeft.getY(), bottomLeft.getZ(), width, height)), false);
-
-                    // 检查大小是否符合要求
-                    if (width < PortalFrameValidator.MIN_PORTAL_WIDTH
-                            || height < PortalFrameValidator.MIN_PORTAL_HEIGHT) {
-                        player.sendMessage(Text.literal(String.format(
-                                "§c框架太小! 最小需要%dx%d，当前为%dx%d",
-                                PortalFrameValidator.MIN_PORTAL_WIDTH, PortalFrameValidator.MIN_PORTAL_HEIGHT, width,
-                                height)), false);
-                    } else if (width > PortalFrameValidator.MAX_PORTAL_WIDTH
-                            || height > PortalFrameValidator.MAX_PORTAL_HEIGHT) {
-                        player.sendMessage(Text.literal(String.format(
-                                "§c框架太大! 最大允许%dx%d，当前为%dx%d",
-                                PortalFrameValidator.MAX_PORTAL_WIDTH, PortalFrameValidator.MAX_PORTAL_HEIGHT, width,
-                                height)), false);
-                    }
-
-                    // 验证四个角落
-                    BlockPos bottomRight = bottomLeft.offset(sideDirection, width - 1);
-                    BlockPos topLeft = bottomLeft.offset(Direction.UP, height - 1);
-                    BlockPos topRight = topLeft.offset(sideDirection, width - 1);
-
-                    boolean hasCorners = true;
-                    if (!PortalFrameValidator.isValidFrameBlock(world, bottomLeft)) {
-                        player.sendMessage(Text.literal("§c左下角缺少框架方块!"), false);
-                        hasCorners = false;
-                    }
-                    if (!PortalFrameValidator.isValidFrameBlock(world, bottomRight)) {
-                        player.sendMessage(Text.literal("§c右下角缺少框架方块!"), false);
-                        hasCorners = false;
-                    }
-                    if (!PortalFrameValidator.isValidFrameBlock(world, topLeft)) {
-                        player.sendMessage(Text.literal("§c左上角缺少框架方块!"), false);
-                        hasCorners = false;
-                    }
-                    if (!PortalFrameValidator.isValidFrameBlock(world, topRight)) {
-                        player.sendMessage(Text.literal("§c右上角缺少框架方块!"), false);
-                        hasCorners = false;
-                    }
-
-                    if (hasCorners) {
-                        player.sendMessage(Text.literal("§a四个角落验证通过!"), false);
-
-                        // 检查内部空间
-                        boolean hasInvalidInner = false;
-                        for (int h = 1; h < height - 1 && !hasInvalidInner; h++) {
-                            for (int w = 1; w < width - 1 && !hasInvalidInner; w++) {
-                                BlockPos innerPos = bottomLeft.offset(Direction.UP, h).offset(sideDirection, w);
-                                if (!world.getBlockState(innerPos).isAir()) {
-                                    player.sendMessage(Text.literal(String.format(
-                                            "§c内部空间被占用! 位置=(%d,%d,%d)",
-                                            innerPos.getX(), innerPos.getY(), innerPos.getZ())), false);
-                                    hasInvalidInner = true;
-                                }
-                            }
-                        }
-
-                        if (!hasInvalidInner) {
-                            player.sendMessage(Text.literal("§a内部空间验证通过，框架应该是有效的！请尝试在不同位置使用调试工具。"), false);
-                        }
-                    }
-                }
+            // 使用检测器记录的每个轴向的诊断结果，不再重新扫描
+            PortalFrameDetector detector = PortalFrameValidator.getDetector();
+            for (Direction.Axis axis : new Direction.Axis[]{Direction.Axis.X, Direction.Axis.Z}) {
+                sendDiagnosis(player, detector, axis);
             }
         }
 
@@ -164,81 +113,44 @@ public class PortalDebugTool extends Item {
      */
     private void sendFrameInfo(PlayerEntity player, PortalFrameValidator.PortalFrameResult result) {
         player.sendMessage(Text.literal(String.format(
-                "§e框架信息: 宽度=%d, 高度=%d, 方向=%s",
-                result.width, result.height, result.direction)), false);
+                "§e框架信息: 宽度=%d, 高度=%d, 轴向=%s",
+                result.width, result.height, result.axis)), false);
 
+        BlockPos bottomLeft = result.getBottomLeft();
         player.sendMessage(Text.literal(String.format(
                 "§e左下角位置: (%d, %d, %d)",
-                result.bottomLeft.getX(), result.bottomLeft.getY(), result.bottomLeft.getZ())), false);
+                bottomLeft.getX(), bottomLeft.getY(), bottomLeft.getZ())), false);
 
         player.sendMessage(Text.literal(String.format(
-                "§e框架方块数量: %d", result.frameBlocks.size())), false);
-    }
-
-    /**
-     * 尝试找到框架的左下角
-     */
-    private BlockPos tryFindBottomLeft(World world, BlockPos startPos, Direction sideDirection) {
-        // 如果起始位置不是框架方块，返回null
-        if (!PortalFrameValidator.isValidFrameBlock(world, startPos)) {
-            return null;
-        }
-
-        // 向下和向左寻找最远的框架方块
-        BlockPos current = startPos;
-        BlockPos next;
-
-        // 向下找最底部的框架方块
-        while (PortalFrameValidator.isValidFrameBlock(world, next = current.down())) {
-            current = next;
-        }
-
-        // 向反方向找最左侧的框架方块
-        Direction oppositeOfSide = sideDirection.getOpposite();
-        while (PortalFrameValidator.isValidFrameBlock(world, next = current.offset(oppositeOfSide))) {
-            current = next;
-        }
-
-        return current;
+                "§e框架方块数量: %d", result.getFrameBlockCount())), false);
     }
 
     /**
-     * 测量框架宽度
+     * 显示单个轴向的诊断信息
      */
-    private int measureWidth(World world, BlockPos bottomLeft, Direction sideDirection) {
-        int width = 1;
-        BlockPos current = bottomLeft;
-
-        // 沿着侧向方向测量到有效的框架边界
-        while (width < PortalFrameValidator.MAX_PORTAL_WIDTH) {
-            BlockPos next = current.offset(sideDirection);
-            if (!PortalFrameValidator.isValidFrameBlock(world, next)) {
-                break;
-            }
-            width++;
-            current = next;
-        }
+    private void sendDiagnosis(PlayerEntity player, PortalFrameDetector detector, Direction.Axis axis) {
+        BlockPos corner = BlockPos.fromLong(detector.getCorner(axis));
+        BlockPos failurePos = BlockPos.fromLong(detector.getFailurePos(axis));
+        int width = detector.getWidth(axis);
+        int height = detector.getHeight(axis);
 
-        return width;
-    }
-
-    /**
-     * 测量框架高度
-     */
-    private int measureHeight(World world, BlockPos bottomLeft) {
-        int height = 1;
-        BlockPos current = bottomLeft;
-
-        // 沿着向上方向测量到有效的框架边界
-        while (height < PortalFrameValidator.MAX_PORTAL_HEIGHT) {
-            BlockPos next = current.offset(Direction.UP);
-            if (!PortalFrameValidator.isValidFrameBlock(world, next)) {
-                break;
-            }
-            height++;
-            current = next;
+        player.sendMessage(Text.literal(String.format(
+                "§e方向=%s: 找到可能的框架，位置=(%d,%d,%d), 宽度=%d, 高度=%d",
+                axis, corner.getX(), corner.getY(), corner.getZ(), width, height)), false);
+
+        switch (detector.getFailure(axis)) {
+            case NOT_FRAME -> player.sendMessage(Text.literal("§c起点不是有效的框架方块!"), false);
+            case TOO_SMALL -> player.sendMessage(Text.literal(String.format(
+                    "§c框架太小! 最小需要%dx%d，当前为%dx%d",
+                    PortalFrameValidator.MIN_PORTAL_WIDTH, PortalFrameValidator.MIN_PORTAL_HEIGHT, width,
+                    height)), false);
+            case MISSING_FRAME -> player.sendMessage(Text.literal(String.format(
+                    "§c缺少框架方块! 位置=(%d,%d,%d)",
+                    failurePos.getX(), failurePos.getY(), failurePos.getZ())), false);
+            case BLOCKED -> player.sendMessage(Text.literal(String.format(
+                    "§c内部空间被占用! 位置=(%d,%d,%d)",
+                    failurePos.getX(), failurePos.getY(), failurePos.getZ())), false);
+            case NONE -> player.sendMessage(Text.literal("§a该方向框架验证通过！"), false);
         }
-
-        return height;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,281 @@
+package com.blasphemy.portal;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.Direction;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 传送门点火失败缓存
+ * 记录每个世界中点火位置最近一次验证失败的诊断，同一位置的重复点火直接返回缓存结果，不再扫描框架。
+ * 每条记录监视检测窗口覆盖的全部区段，区段内任何方块变化都会推进该区段的变更戳，
+ * 记录的变更戳落后即视为失效。
+ * 只在服务器线程上访问。
+ */
+public class PortalFailureCache {
+
+    // 检测器从点击位置出发，在每个方向上最多读取 22 格
+    private static final int REACH = Math.max(PortalFrameValidator.MAX_PORTAL_WIDTH,
+            PortalFrameValidator.MAX_PORTAL_HEIGHT) - 1;
+
+    // 每个世界最多缓存的位置数量，超出时整体清空
+    private static final int MAX_ENTRIES = 256;
+
+    private static final Map<RegistryKey<World>, WorldCache> CACHES = new HashMap<>();
+
+    // 所有世界中被监视的区段总数，为0时方块变化通知直接返回
+    private static int watchedSections;
+
+    /**
+     * 初始化缓存
+     * 服务器停止时丢弃全部记录
+     */
+    public static void init() {
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
+            CACHES.clear();
+            watchedSections = 0;
+        });
+    }
+
+    /**
+     * 查询点击位置的缓存诊断
+     *
+     * @return 未失效的失败诊断；没有记录或已失效时返回null
+     */
+    @Nullable
+    public static Diagnosis lookup(ServerWorld world, BlockPos pos) {
+        WorldCache cache = CACHES.get(world.getRegistryKey());
+        if (cache == null) {
+            return null;
+        }
+        Ticket ticket = cache.entries.get(pos.asLong());
+        if (ticket == null || ticket.diagnosis == null) {
+            return null;
+        }
+        if (!cache.isFresh(ticket)) {
+            cache.release(ticket);
+            return null;
+        }
+        return ticket.diagnosis;
+    }
+
+    /**
+     * 在扫描开始前为点击位置登记监视
+     * 扫描期间发生的方块变化同样会使本次结果失效，因此必须在读取世界之前调用
+     */
+    public static Ticket begin(ServerWorld world, BlockPos pos) {
+        WorldCache cache = CACHES.computeIfAbsent(world.getRegistryKey(), key -> new WorldCache());
+        long key = pos.asLong();
+        Ticket previous = cache.entries.get(key);
+        if (previous != null) {
+            cache.release(previous);
+        }
+        if (cache.entries.size() >= MAX_ENTRIES) {
+            cache.clear();
+        }
+
+        Ticket ticket = new Ticket(world.getRegistryKey(), key, cache.clock, FrameBlockMatcher.get(),
+                windowSections(world, pos));
+        cache.watch(ticket);
+        cache.entries.put(key, ticket);
+        return ticket;
+    }
+
+    /**
+     * 记录扫描失败的诊断
+     * 如果扫描期间窗口内的方块已经变化，则丢弃本次结果
+     */
+    public static void complete(Ticket ticket, Diagnosis diagnosis) {
+        WorldCache cache = CACHES.get(ticket.world);
+        if (cache == null || cache.entries.get(ticket.key) != ticket) {
+            return;
+        }
+        if (!cache.isFresh(ticket)) {
+            cache.release(ticket);
+            return;
+        }
+        ticket.diagnosis = diagnosis;
+    }
+
+    /**
+     * 放弃登记，用于扫描成功或结果不可缓存的情况
+     */
+    public static void discard(Ticket ticket) {
+        WorldCache cache = CACHES.get(ticket.world);
+        if (cache != null && cache.entries.get(ticket.key) == ticket) {
+            cache.release(ticket);
+        }
+    }
+
+    /**
+     * 方块变化通知，由 ServerWorldMixin 调用
+     */
+    public static void onBlockChanged(ServerWorld world, BlockPos pos) {
+        if (watchedSections == 0) {
+            return;
+        }
+        WorldCache cache = CACHES.get(world.getRegistryKey());
+        if (cache != null) {
+            cache.touch(ChunkSectionPos.asLong(pos.getX() >> 4, pos.getY() >> 4, pos.getZ() >> 4));
+        }
+    }
+
+    /**
+     * 检测窗口覆盖的区段：点击位置所在的两个竖直平面，每个方向延伸 REACH 格
+     */
+    private static long[] windowSections(World world, BlockPos pos) {
+        int minSectionY = Math.max(pos.getY() - REACH, world.getBottomY()) >> 4;
+        int maxSectionY = Math.min(pos.getY() + REACH, world.getTopY() - 1) >> 4;
+        int chunkX = pos.getX() >> 4;
+        int chunkZ = pos.getZ() >> 4;
+        int minChunkX = (pos.getX() - REACH) >> 4;
+        int maxChunkX = (pos.getX() + REACH) >> 4;
+        int minChunkZ = (pos.getZ() - REACH) >> 4;
+        int maxChunkZ = (pos.getZ() + REACH) >> 4;
+
+        int columns = (maxChunkX - minChunkX + 1) + (maxChunkZ - minChunkZ);
+        long[] sections = new long[columns * (maxSectionY - minSectionY + 1)];
+        int i = 0;
+        for (int sectionY = minSectionY; sectionY <= maxSectionY; sectionY++) {
+            for (int cx = minChunkX; cx <= maxChunkX; cx++) {
+                sections[i++] = ChunkSectionPos.asLong(cx, sectionY, chunkZ);
+            }
+            // 与X轴平面共用点击位置所在的区块
+            for (int cz = minChunkZ; cz <= maxChunkZ; cz++) {
+                if (cz != chunkZ) {
+                    sections[i++] = ChunkSectionPos.asLong(chunkX, sectionY, cz);
+                }
+            }
+        }
+        return sections;
+    }
+
+    /**
+     * 一次扫描的登记
+     */
+    public static final class Ticket {
+        private final RegistryKey<World> world;
+        private final long key;
+        private final long stamp;
+        private final FrameBlockMatcher matcher;
+        private final long[] sections;
+        private Diagnosis diagnosis;
+
+        private Ticket(RegistryKey<World> world, long key, long stamp, FrameBlockMatcher matcher, long[] sections) {
+            this.world = world;
+            this.key = key;
+            this.stamp = stamp;
+            this.matcher = matcher;
+            this.sections = sections;
+        }
+    }
+
+    /**
+     * 两个轴向的失败诊断，从检测器中复制，可以跨线程传递
+     */
+    public static final class Diagnosis {
+        private final PortalFrameDetector.Failure[] failures = new PortalFrameDetector.Failure[2];
+        private final long[] failurePositions = new long[2];
+
+        private Diagnosis() {
+        }
+
+        /**
+         * 复制检测器最近一次检测的诊断
+         */
+        public static Diagnosis of(PortalFrameDetector detector) {
+            Diagnosis diagnosis = new Diagnosis();
+            diagnosis.failures[0] = detector.getFailure(Direction.Axis.X);
+            diagnosis.failures[1] = detector.getFailure(Direction.Axis.Z);
+            diagnosis.failurePositions[0] = detector.getFailurePos(Direction.Axis.X);
+            diagnosis.failurePositions[1] = detector.getFailurePos(Direction.Axis.Z);
+            return diagnosis;
+        }
+
+        public PortalFrameDetector.Failure getFailure(Direction.Axis axis) {
+            return failures[axis == Direction.Axis.X ? 0 : 1];
+        }
+
+        public BlockPos getFailurePos(Direction.Axis axis) {
+            return BlockPos.fromLong(failurePositions[axis == Direction.Axis.X ? 0 : 1]);
+        }
+    }
+
+    /**
+     * 单个世界的缓存
+     */
+    private static class WorldCache {
+        // 按点击位置索引的登记
+        private final Long2ObjectOpenHashMap<Ticket> entries = new Long2ObjectOpenHashMap<>();
+        // 被监视的区段及其状态
+        private final Long2ObjectOpenHashMap<Watch> watches = new Long2ObjectOpenHashMap<>();
+        // 单调递增的变更时钟
+        private long clock;
+
+        private void watch(Ticket ticket) {
+            for (long section : ticket.sections) {
+                Watch watch = watches.get(section);
+                if (watch == null) {
+                    watch = new Watch();
+                    watches.put(section, watch);
+                    watchedSections++;
+                }
+                watch.refs++;
+            }
+        }
+
+        private void release(Ticket ticket) {
+            entries.remove(ticket.key);
+            for (long section : ticket.sections) {
+                Watch watch = watches.get(section);
+                if (watch != null && --watch.refs <= 0) {
+                    watches.remove(section);
+                    watchedSections--;
+                }
+            }
+        }
+
+        private void touch(long section) {
+            Watch watch = watches.get(section);
+            if (watch != null) {
+                watch.stamp = ++clock;
+            }
+        }
+
+        private boolean isFresh(Ticket ticket) {
+            if (ticket.matcher != FrameBlockMatcher.get()) {
+                return false;
+            }
+            for (long section : ticket.sections) {
+                Watch watch = watches.get(section);
+                if (watch != null && watch.stamp > ticket.stamp) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void clear() {
+            watchedSections -= watches.size();
+            watches.clear();
+            entries.clear();
+        }
+    }
+
+    /**
+     * 区段的监视状态
+     */
+    private static class Watch {
+        private int refs;
+        // 该区段最近一次变化时的时钟值
+        private long stamp;
+    }
+}
@@ -0,0 +1,230 @@
+package com.blasphemy.portal;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Direction;
+import net.minecraft.world.BlockView;
+
+/**
+ * 传送门框架检测器
+ * 以点击位置为起点，在每个轴向上最多 23x23 的窗口内逐行读取方块，
+ * 每行编码为框架和空气两个位图，用位运算判定该行的框架和内部空间，遇到第一处不符即停止。
+ * 扫描过程中不分配 BlockPos，读取次数上限为 O(周长 + 面积)。
+ * 实例持有可复用的游标和诊断信息，不是线程安全的，每个线程应使用独立实例。
+ */
+public class PortalFrameDetector {
+
+    private static final int MAX_WIDTH = PortalFrameValidator.MAX_PORTAL_WIDTH;
+    private static final int MAX_HEIGHT = PortalFrameValidator.MAX_PORTAL_HEIGHT;
+
+    /**
+     * 单个轴向的检测失败原因
+     */
+    public enum Failure {
+        NONE,           // 检测成功
+        NOT_FRAME,      // 起点不是框架方块
+        TOO_SMALL,      // 底边或左边长度不足
+        MISSING_FRAME,  // 顶边或右边缺少框架方块
+        BLOCKED         // 内部空间被占用
+    }
+
+    private final BlockPos.Mutable cursor = new BlockPos.Mutable();
+
+    // 最近一次检测中每个轴向的诊断信息，下标 0 为 X 轴，1 为 Z 轴
+    private final Failure[] failures = {Failure.NONE, Failure.NONE};
+    private final long[] corners = new long[2];
+    private final long[] failurePositions = new long[2];
+    private final int[] widths = new int[2];
+    private final int[] heights = new int[2];
+
+    private BlockView view;
+    private FrameBlockMatcher matcher;
+
+    /**
+     * 检测包含指定框架方块的传送门框架
+     * 先尝试X轴，再尝试Z轴
+     *
+     * @return 如果有效，返回框架结果；否则返回null
+     */
+    public PortalFrameValidator.PortalFrameResult detect(BlockView view, BlockPos origin) {
+        this.view = view;
+        this.matcher = FrameBlockMatcher.get();
+        try {
+            if (!isFrame(origin.getX(), origin.getY(), origin.getZ())) {
+                for (int i = 0; i < 2; i++) {
+                    failures[i] = Failure.NOT_FRAME;
+                    corners[i] = origin.asLong();
+                    failurePositions[i] = origin.asLong();
+                    widths[i] = 0;
+                    heights[i] = 0;
+                }
+                return null;
+            }
+
+            // 向下查找底边，两个轴向共用同一列，且步数有上限
+            int bottomY = origin.getY();
+            int minY = view.getBottomY();
+            for (int i = 1; i < MAX_HEIGHT && bottomY - 1 >= minY
+                    && isFrame(origin.getX(), bottomY - 1, origin.getZ()); i++) {
+                bottomY--;
+            }
+
+            PortalFrameValidator.PortalFrameResult result = detectOnAxis(origin, bottomY, Direction.Axis.X);
+            if (result != null) {
+                return result;
+            }
+            return detectOnAxis(origin, bottomY, Direction.Axis.Z);
+        } finally {
+            this.view = null;
+        }
+    }
+
+    /**
+     * 在指定轴向上检测框架
+     */
+    private PortalFrameValidator.PortalFrameResult detectOnAxis(BlockPos origin, int bottomY, Direction.Axis axis) {
+        int index = axis == Direction.Axis.X ? 0 : 1;
+        int stepX = axis == Direction.Axis.X ? 1 : 0;
+        int stepZ = axis == Direction.Axis.Z ? 1 : 0;
+
+        // 沿底边向左查找左下角，步数有上限
+        int cornerX = origin.getX();
+        int cornerZ = origin.getZ();
+        for (int i = 1; i < MAX_WIDTH && isFrame(cornerX - stepX, bottomY, cornerZ - stepZ); i++) {
+            cornerX -= stepX;
+            cornerZ -= stepZ;
+        }
+        corners[index] = BlockPos.asLong(cornerX, bottomY, cornerZ);
+
+        // 读取底边和左边，确定外框宽度和高度
+        int width = 1;
+        while (width < MAX_WIDTH && isFrame(cornerX + stepX * width, bottomY, cornerZ + stepZ * width)) {
+            width++;
+        }
+        int height = 1;
+        while (height < MAX_HEIGHT && isFrame(cornerX, bottomY + height, cornerZ)) {
+            height++;
+        }
+        widths[index] = width;
+        heights[index] = height;
+
+        if (width < PortalFrameValidator.MIN_PORTAL_WIDTH || height < PortalFrameValidator.MIN_PORTAL_HEIGHT) {
+            return fail(index, Failure.TOO_SMALL, cornerX, bottomY, cornerZ);
+        }
+
+        // 底边整行都是框架，宽度即由这一行决定
+        int full = (1 << width) - 1;
+        int edges = 1 | (1 << (width - 1));
+        int inner = full & ~edges;
+
+        // 逐行读取窗口，每读完一行立即用位运算判定：
+        // 顶边整行必须是框架，其余行两端必须是框架、中间必须是空气
+        for (int v = 1; v < height; v++) {
+            int y = bottomY + v;
+            int frameBits = 1;
+            int airBits = 0;
+            for (int u = 1; u < width; u++) {
+                BlockState state = read(cornerX + stepX * u, y, cornerZ + stepZ * u);
+                if (matcher.matches(state)) {
+                    frameBits |= 1 << u;
+                } else if (state.isAir()) {
+                    airBits |= 1 << u;
+                }
+            }
+
+            int missing = (v == height - 1 ? full : edges) & ~frameBits;
+            if (missing != 0) {
+                int u = Integer.numberOfTrailingZeros(missing);
+                return fail(index, Failure.MISSING_FRAME, cornerX + stepX * u, y, cornerZ + stepZ * u);
+            }
+            int blocked = v == height - 1 ? 0 : inner & ~airBits;
+            if (blocked != 0) {
+                int u = Integer.numberOfTrailingZeros(blocked);
+                return fail(index, Failure.BLOCKED, cornerX + stepX * u, y, cornerZ + stepZ * u);
+            }
+        }
+
+        failures[index] = Failure.NONE;
+        failurePositions[index] = corners[index];
+
+        return new PortalFrameValidator.PortalFrameResult(corners[index], axis, width, height);
+    }
+
+    /**
+     * 复核一个已检测出的框架在给定视图中是否仍然完整
+     * 只读取该矩形本身（框架 + 内部），用于异步检测结果回到服务器线程后的确认
+     */
+    public boolean verify(BlockView view, PortalFrameValidator.PortalFrameResult result) {
+        this.view = view;
+        this.matcher = FrameBlockMatcher.get();
+        try {
+            int stepX = result.axis == Direction.Axis.X ? 1 : 0;
+            int stepZ = result.axis == Direction.Axis.Z ? 1 : 0;
+            int cornerX = BlockPos.unpackLongX(result.origin);
+            int cornerY = BlockPos.unpackLongY(result.origin);
+            int cornerZ = BlockPos.unpackLongZ(result.origin);
+            for (int v = 0; v < result.height; v++) {
+                boolean edgeRow = v == 0 || v == result.height - 1;
+                for (int u = 0; u < result.width; u++) {
+                    BlockState state = read(cornerX + stepX * u, cornerY + v, cornerZ + stepZ * u);
+                    boolean expectFrame = edgeRow || u == 0 || u == result.width - 1;
+                    if (expectFrame ? !matcher.matches(state) : !state.isAir()) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        } finally {
+            this.view = null;
+        }
+    }
+
+    private PortalFrameValidator.PortalFrameResult fail(int index, Failure failure, int x, int y, int z) {
+        failures[index] = failure;
+        failurePositions[index] = BlockPos.asLong(x, y, z);
+        return null;
+    }
+
+    private BlockState read(int x, int y, int z) {
+        return view.getBlockState(cursor.set(x, y, z));
+    }
+
+    private boolean isFrame(int x, int y, int z) {
+        return matcher.matches(read(x, y, z));
+    }
+
+    /**
+     * 最近一次检测在指定轴向上的失败原因
+     */
+    public Failure getFailure(Direction.Axis axis) {
+        return failures[axis == Direction.Axis.X ? 0 : 1];
+    }
+
+    /**
+     * 最近一次检测在指定轴向上找到的左下角，以 BlockPos.asLong 编码
+     */
+    public long getCorner(Direction.Axis axis) {
+        return corners[axis == Direction.Axis.X ? 0 : 1];
+    }
+
+    /**
+     * 最近一次检测在指定轴向上失败的位置，以 BlockPos.asLong 编码
+     */
+    public long getFailurePos(Direction.Axis axis) {
+        return failurePositions[axis == Direction.Axis.X ? 0 : 1];
+    }
+
+    /**
+     * 最近一次检测在指定轴向上测得的外框宽度
+     */
+    public int getWidth(Direction.Axis axis) {
+        return widths[axis == Direction.Axis.X ? 0 : 1];
+    }
+
+    /**
+     * 最近一次检测在指定轴向上测得的外框高度
+     */
+    public int getHeight(Direction.Axis axis) {
+        return heights[axis == Direction.Axis.X ? 0 : 1];
+    }
+}
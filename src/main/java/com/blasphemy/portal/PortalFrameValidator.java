@@ -2,26 +2,25 @@ package com.blasphemy.portal;
 
 import com.blasphemy.Blasphemy;
 import com.blasphemy.config.ModConfig;
-import net.minecraft.block.Block;
+import com.blasphemy.util.DebugTrace;
+import net.fabricmc.fabric.api.event.lifecycle.v1.CommonLifecycleEvents;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
 import net.minecraft.block.NetherPortalBlock;
 import net.minecraft.entity.player.PlayerEntity;
-import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.ItemUsageContext;
 import net.minecraft.registry.Registries;
+import net.minecraft.server.world.ServerWorld;
 import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
-import net.minecraft.util.Identifier;
+import net.minecraft.util.Hand;
+import net.minecraft.util.hit.BlockHitResult;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Direction;
 import net.minecraft.world.World;
 
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.util.function.LongConsumer;
 
 /**
  * 传送门框架验证器
@@ -35,60 +34,39 @@ public class PortalFrameValidator {
     public static final int MAX_PORTAL_WIDTH = 23; // 外框最大宽度
     public static final int MAX_PORTAL_HEIGHT = 23; // 外框最大高度
 
+    // 每个线程一个框架检测器，复用其中的游标和诊断信息
+    private static final ThreadLocal<PortalFrameDetector> DETECTOR = ThreadLocal.withInitial(PortalFrameDetector::new);
+
     /**
      * 初始化验证器
      * 从配置中加载有效的框架方块
      */
     public static void init() {
         Blasphemy.LOGGER.info("初始化传送门框架验证器");
-    }
-
-    /**
-     * 检查物品是否是有效的点火物品
-     */
-    public static boolean isValidIgnitionItem(ItemStack stack) {
-        if (stack.isEmpty()) {
-            Blasphemy.LOGGER.debug("点火物品检查：物品为空");
-            return false;
-        }
-
-        // 基本的匹配检查
-        boolean isValid = false;
-        // 获取配置中的点火物品
-        String configItemId = ModConfig.getConfig().portalConfig.ignitionItem;
 
-        // 检查是否匹配配置中的物品
-        if (configItemId != null && stack.getItem() == Registries.ITEM.get(new Identifier(configItemId))) {
-            Blasphemy.LOGGER.info("点火物品检查：物品 {} 匹配配置物品 {}",
-                    stack.getItem().getName().getString(), configItemId);
-            isValid = true;
-        }
+        // 编译框架方块匹配器，并在配置或标签变化时重建
+        FrameBlockMatcher.rebuild();
+        ModConfig.addReloadListener(FrameBlockMatcher::rebuild);
+        CommonLifecycleEvents.TAGS_LOADED.register((registries, client) -> FrameBlockMatcher.rebuild());
 
-        // 如果未启用自定义，或明确设置支持原版，则支持默认物品
-        if (!ModConfig.getConfig().portalConfig.enabled ||
-                ModConfig.getConfig().portalConfig.supportVanillaItems) {
+        // 初始化传送门索引
+        PortalIndex.init();
 
-            // 检查是否是打火石
-            String flintAndSteel = "minecraft:flint_and_steel";
-            Item flintAndSteelItem = Registries.ITEM.get(new Identifier(flintAndSteel));
-            if (stack.getItem() == flintAndSteelItem) {
-                Blasphemy.LOGGER.info("点火物品检查：物品 {} 是打火石", stack.getItem().getName().getString());
-                isValid = true;
-            }
+        // 初始化点火失败缓存
+        PortalFailureCache.init();
 
-            // 检查是否是火焰弹
-            String fireCharge = "minecraft:fire_charge";
-            Item fireChargeItem = Registries.ITEM.get(new Identifier(fireCharge));
-            if (stack.getItem() == fireChargeItem) {
-                Blasphemy.LOGGER.info("点火物品检查：物品 {} 是火焰弹", stack.getItem().getName().getString());
-                isValid = true;
-            }
-        }
+        // 初始化异步验证工作线程
+        AsyncPortalValidator.init();
 
-        Blasphemy.LOGGER.info("点火物品检查结果：物品={}, 配置项={}, 结果={}",
-                stack.getItem().getName().getString(), configItemId, isValid ? "有效" : "无效");
+        // 注册自定义点火物品分发
+        IgnitionDispatcher.init();
+    }
 
-        return isValid;
+    /**
+     * 检查物品是否是有效的点火物品
+     */
+    public static boolean isValidIgnitionItem(ItemStack stack) {
+        return IgnitionDispatcher.isIgnitionItem(stack);
     }
 
     /**
@@ -99,30 +77,14 @@ public class PortalFrameValidator {
             return false;
         }
 
-        // 获取点击的方块
-        BlockState state = world.getBlockState(pos);
-        // 获取方块
-        Block block = state.getBlock();
-        // 获取方块id
-        String blockId = Registries.BLOCK.getId(block).toString();
-        // 获取配置文件中允许的框架方块
-        List<String> allowedBlocks = ModConfig.getConfig().portalConfig.portalBlocks;
-
-        // 检查是否在配置的有效框架方块列表中
-        if (allowedBlocks.contains(blockId)) {
-            Blasphemy.LOGGER.info("方块 {} 在配置列表中，是有效的框架方块", blockId);
-            return true;
-        }
-
-        // 黑曜石特殊处理
-        if (block == Blocks.OBSIDIAN && !allowedBlocks.contains("minecraft:obsidian")) {
-            if (!ModConfig.getConfig().portalConfig.supportVanillaItems) {
-                Blasphemy.LOGGER.debug("黑曜石方块检查：不在配置列表中，不是有效框架方块");
-                return false;
-            }
-        }
+        return FrameBlockMatcher.get().matches(world.getBlockState(pos));
+    }
 
-        return false;
+    /**
+     * 检查方块状态是否是有效的框架方块
+     */
+    public static boolean isValidFrameBlock(BlockState state) {
+        return FrameBlockMatcher.get().matches(state);
     }
 
     /**
@@ -135,48 +97,59 @@ public class PortalFrameValidator {
         BlockPos pos = context.getBlockPos();
         PlayerEntity player = context.getPlayer();
 
-        if (world.isClient || player == null) {
+        // 异步验证失败后重放原版物品使用时不再处理
+        if (world.isClient || player == null || AsyncPortalValidator.isReplaying()) {
             return false;
         }
 
-        Blasphemy.LOGGER.info("======== 传送门点燃尝试 ========");
-        Blasphemy.LOGGER.info("玩家 {} 尝试在 {} 点燃传送门", player.getName().getString(), pos);
-        Blasphemy.LOGGER.info("使用物品: {}", context.getStack().getItem().getName().getString());
-
-        // 记录点击的方块类型
         BlockState blockState = world.getBlockState(pos);
-        Block clickedBlock = blockState.getBlock();
-        Blasphemy.LOGGER.info("点击方块: {}", clickedBlock.getName().getString());
+        if (DebugTrace.isEnabled(DebugTrace.Subsystem.IGNITION)) {
+            DebugTrace.trace(DebugTrace.Subsystem.IGNITION, "玩家 {} 尝试在 {} 点燃传送门，物品：{}，方块：{}",
+                    player.getName().getString(), pos, Registries.ITEM.getId(context.getStack().getItem()),
+                    Registries.BLOCK.getId(blockState.getBlock()));
+        }
 
         // 首先检查点击的方块是否是有效的框架方块
-        if (!isValidFrameBlock(world, pos)) {
-            String invalidBlockMsg = ModConfig.getConfig().portalConfig.messages.invalidBlock;
+        if (!isValidFrameBlock(blockState)) {
+            String invalidBlockMsg = ModConfig.snapshot().portal.invalidBlockMessage;
             player.sendMessage(Text.translatable(invalidBlockMsg).formatted(Formatting.RED), true);
-            Blasphemy.LOGGER.info("点火失败：点击的不是有效的框架方块 {}", blockState.getBlock().getName().getString());
+            DebugTrace.trace(DebugTrace.Subsystem.IGNITION, "点火失败：点击的不是有效的框架方块");
             return false;
         }
 
-        Blasphemy.LOGGER.info("配置状态: enabled={}, supportVanillaItems={}, configItem={}",
-                ModConfig.getConfig().portalConfig.enabled,
-                ModConfig.getConfig().portalConfig.supportVanillaItems,
-                ModConfig.getConfig().portalConfig.ignitionItem);
-
         // 检查是否是有效的点火物品
         ItemStack stack = context.getStack();
         if (!isValidIgnitionItem(stack)) {
-            Blasphemy.LOGGER.info("点火失败：不是有效的点火物品");
+            DebugTrace.trace(DebugTrace.Subsystem.IGNITION, "点火失败：不是有效的点火物品");
             if (player != null) {
-                String invalidItemMsg = ModConfig.getConfig().portalConfig.messages.invalidItem;
+                String invalidItemMsg = ModConfig.snapshot().portal.invalidItemMessage;
                 player.sendMessage(Text.translatable(invalidItemMsg).formatted(Formatting.RED), true);
             }
             return false;
         }
 
+        // 框架未变化时重复点火，直接返回上次的失败诊断，不再扫描
+        if (world instanceof ServerWorld serverWorld) {
+            PortalFailureCache.Diagnosis cached = PortalFailureCache.lookup(serverWorld, pos);
+            if (cached != null) {
+                DebugTrace.trace(DebugTrace.Subsystem.PORTAL, "命中失败缓存：{}，X轴={}，Z轴={}",
+                        pos, cached.getFailure(Direction.Axis.X), cached.getFailure(Direction.Axis.Z));
+                player.sendMessage(Text.literal("未找到有效的传送门框架").formatted(Formatting.RED), true);
+                return false;
+            }
+        }
+
+        // 异步模式：捕获快照后交给工作线程验证，结果在之后的服务器刻应用
+        if (AsyncPortalValidator.isEnabled() && world instanceof ServerWorld serverWorld
+                && AsyncPortalValidator.submit(serverWorld, new BlockHitResult(context.getHitPos(), context.getSide(),
+                        pos, context.hitsInsideBlock()), player, stack, context.getHand())) {
+            DebugTrace.trace(DebugTrace.Subsystem.IGNITION, "已提交异步传送门验证：{}", pos);
+            return true;
+        }
+
         // 验证传送门框架
-        Blasphemy.LOGGER.info("开始验证传送门框架...");
         PortalFrameResult result = validatePortalFrame(world, pos);
         if (result == null) {
-            Blasphemy.LOGGER.info("点火失败：未找到有效的传送门框架");
             if (player != null) {
                 player.sendMessage(Text.literal("未找到有效的传送门框架").formatted(Formatting.RED), true);
             }
@@ -184,25 +157,31 @@ public class PortalFrameValidator {
         }
 
         // 创建传送门
-        Blasphemy.LOGGER.info("找到有效的传送门框架，尺寸：{}x{}，方向：{}", result.width, result.height, result.direction);
         createPortal(world, result);
 
         // 损耗物品（如果不是创造模式）
-        if (!player.isCreative()) {
-            if (stack.isDamageable()) {
-                stack.damage(1, player, p -> p.sendToolBreakStatus(context.getHand()));
-            } else {
-                stack.decrement(1);
-            }
-        }
+        consumeIgnitionItem(player, stack, context.getHand());
 
-        Blasphemy.LOGGER.info("传送门点燃成功");
         if (player != null) {
             player.sendMessage(Text.literal("传送门已激活！").formatted(Formatting.GREEN), true);
         }
         return true;
     }
 
+    /**
+     * 消耗点火物品（创造模式不消耗）
+     */
+    public static void consumeIgnitionItem(PlayerEntity player, ItemStack stack, Hand hand) {
+        if (player.isCreative()) {
+            return;
+        }
+        if (stack.isDamageable()) {
+            stack.damage(1, player, p -> p.sendToolBreakStatus(hand));
+        } else {
+            stack.decrement(1);
+        }
+    }
+
     /**
      * 验证传送门框架
      * 
@@ -214,383 +193,191 @@ public class PortalFrameValidator {
             return null;
         }
 
-        Blasphemy.LOGGER.info("开始验证传送门框架，位置：{}", pos);
+        // 在读取世界之前登记失败缓存，扫描期间的方块变化同样会使结果失效
+        PortalFailureCache.Ticket ticket = world instanceof ServerWorld serverWorld
+                ? PortalFailureCache.begin(serverWorld, pos) : null;
 
-        // 验证点击位置是否是有效的框架方块
-        if (!isValidFrameBlock(world, pos)) {
-            Blasphemy.LOGGER.info("点击的不是有效的框架方块");
+        // 通过区段读取层扫描，不会触发区块加载
+        PortalBlockAccess access = PortalBlockAccess.begin(world);
+        PortalFrameDetector detector = getDetector();
+        PortalFrameResult result = detector.detect(access, pos);
+        if (result == null) {
+            if (access.hasMissingChunk()) {
+                // 区块加载后结果可能不同，不缓存
+                DebugTrace.trace(DebugTrace.Subsystem.PORTAL, "未找到有效的传送门框架：{} 附近的区块未加载", pos);
+                if (ticket != null) {
+                    PortalFailureCache.discard(ticket);
+                }
+            } else {
+                DebugTrace.trace(DebugTrace.Subsystem.PORTAL, "未找到有效的传送门框架：{}", pos);
+                if (ticket != null) {
+                    PortalFailureCache.complete(ticket, PortalFailureCache.Diagnosis.of(detector));
+                }
+            }
             return null;
         }
 
-        // 检查两个可能的朝向（X轴和Z轴）
-        PortalFrameResult xResult = validatePortalFrameOnAxis(world, pos, Direction.Axis.X);
-        if (xResult != null) {
-            Blasphemy.LOGGER.info("找到X轴方向的有效传送门框架");
-            return xResult;
+        if (ticket != null) {
+            PortalFailureCache.discard(ticket);
         }
 
-        PortalFrameResult zResult = validatePortalFrameOnAxis(world, pos, Direction.Axis.Z);
-        if (zResult != null) {
-            Blasphemy.LOGGER.info("找到Z轴方向的有效传送门框架");
-            return zResult;
-        }
-
-        Blasphemy.LOGGER.info("未找到有效的传送门框架");
-        return null;
+        DebugTrace.trace(DebugTrace.Subsystem.PORTAL, "验证传送门框架成功：{}", result);
+        return result;
     }
 
     /**
-     * 在指定轴上验证传送门框架
+     * 获取当前线程的框架检测器
+     * 检测器持有可复用的网格，不能跨线程共享
      */
-    private static PortalFrameResult validatePortalFrameOnAxis(World world, BlockPos pos, Direction.Axis axis) {
-        // 尝试查找框架底部
-        BlockPos bottomFrame = findBaseFrame(world, pos, axis);
-        if (bottomFrame == null) {
-            Blasphemy.LOGGER.info("{}轴：未找到底部框架", axis);
-            return null;
-        }
-
-        Blasphemy.LOGGER.info("{}轴：找到底部框架在 {}", axis, bottomFrame);
-
-        // 定义宽度和高度方向
-        Direction widthDir = axis == Direction.Axis.X ? Direction.EAST : Direction.SOUTH;
-        Direction heightDir = Direction.UP;
-
-        // 测量框架大小
-        Size size = computePortalSize(world, bottomFrame, widthDir, heightDir);
-
-        if (size == null || !size.isValid()) {
-            Blasphemy.LOGGER.info("{}轴：框架大小无效", axis);
-            return null;
-        }
-
-        Blasphemy.LOGGER.info("{}轴：有效框架大小 {}x{}", axis, size.width, size.height);
-
-        // 创建结果
-        PortalFrameResult result = new PortalFrameResult();
-        result.width = size.width;
-        result.height = size.height;
-        result.direction = axis == Direction.Axis.X ? Direction.EAST : Direction.SOUTH;
-        result.bottomLeft = size.corner;
-        result.frameBlocks = size.frameBlocks;
-
-        Blasphemy.LOGGER.info("验证传送门框架成功：{}x{}，方向：{}，位置：{}",
-                result.width, result.height, result.direction, result.bottomLeft);
-
-        return result;
+    public static PortalFrameDetector getDetector() {
+        return DETECTOR.get();
     }
 
     /**
-     * 查找基础框架位置
+     * 创建传送门
      */
-    private static BlockPos findBaseFrame(World world, BlockPos pos, Direction.Axis axis) {
-        // 向下查找
-        BlockPos current = pos;
-        while (current.getY() > world.getBottomY() && isValidFrameBlock(world, current.down())) {
-            current = current.down();
-        }
+    public static void createPortal(World world, PortalFrameResult result) {
+        if (!(world instanceof ServerWorld serverWorld))
+            return;
 
-        // 现在查找最左侧
-        Direction left = axis == Direction.Axis.X ? Direction.WEST : Direction.NORTH;
-        while (isValidFrameBlock(world, current.offset(left))) {
-            current = current.offset(left);
-        }
+        // 内部范围严格位于框架之内，无需逐个检查是否覆盖框架方块。
+        // 整个平面一次性写入区段，每个区段只发送一个增量包，最后只对外侧做一次邻居更新
+        BlockState portalState = Blocks.NETHER_PORTAL.getDefaultState().with(NetherPortalBlock.AXIS, result.axis);
+        PortalBlockWriter writer = new PortalBlockWriter(serverWorld);
+        result.forEachInterior(pos -> writer.set(pos, portalState));
+        int placed = writer.flush();
+
+        // 结果本身即为索引记录，供破坏处理和调试工具查询
+        PortalIndex.add(serverWorld, result);
 
-        return current;
+        Blasphemy.LOGGER.info("传送门创建完成：{}，放置了 {} 个传送门方块", result, placed);
     }
 
     /**
-     * 计算传送门大小
+     * 移除一个已记录的传送门
+     * 只清除传送门平面内部的传送门方块，并从索引中删除记录
+     *
+     * @return 移除的传送门方块数量
      */
-    private static Size computePortalSize(World world, BlockPos corner, Direction widthDir, Direction heightDir) {
-        Size size = new Size(world, corner, widthDir, heightDir);
-
-        // 计算传送门大小
-        size.calculatePortalSize();
-
-        if (!size.isValid()) {
-            Blasphemy.LOGGER.info("计算的传送门大小无效：{}x{}", size.width, size.height);
-            return null;
-        }
+    public static int removePortal(ServerWorld world, PortalFrameResult portal) {
+        PortalBlockAccess access = PortalBlockAccess.begin(world);
+        PortalBlockWriter writer = new PortalBlockWriter(world);
+        BlockPos.Mutable cursor = new BlockPos.Mutable();
+        BlockState air = Blocks.AIR.getDefaultState();
+        portal.forEachInterior(pos -> {
+            if (access.getBlockState(cursor.set(pos)).getBlock() == Blocks.NETHER_PORTAL) {
+                writer.set(pos, air);
+            }
+        });
+        int count = writer.flush();
 
-        return size;
+        PortalIndex.remove(world, portal);
+        Blasphemy.LOGGER.info("移除传送门：{}，清理了 {} 个传送门方块", portal, count);
+        return count;
     }
 
     /**
-     * 传送门大小计算器
-     * 模拟原版逻辑
+     * 传送门框架结果类
+     * 只保存左下角框架位置、轴向和外框尺寸，框架和内部的位置按需以 BlockPos.asLong 编码遍历。
+     * 不可变，可以直接作为传送门索引的记录
      */
-    private static class Size {
-        private final World world;
-        private final Direction.Axis axis;
-        private final Direction rightDir;
-        private final Direction downDir;
-        private int width;
-        private int height;
-        private BlockPos corner;
-        private Set<BlockPos> frameBlocks = new HashSet<>();
-        private boolean foundPortal = false;
-
-        public Size(World world, BlockPos pos, Direction rightDir, Direction downDir) {
-            this.world = world;
-            this.axis = rightDir.getAxis();
-            this.rightDir = rightDir;
-            this.downDir = downDir;
-            this.corner = pos;
+    public static final class PortalFrameResult {
+        public final long origin; // 左下角框架位置，BlockPos.asLong 编码
+        public final Direction.Axis axis; // 传送门轴向
+        public final int width; // 外框宽度
+        public final int height; // 外框高度
+
+        public PortalFrameResult(long origin, Direction.Axis axis, int width, int height) {
+            this.origin = origin;
+            this.axis = axis;
+            this.width = width;
+            this.height = height;
         }
 
         /**
-         * 计算传送门大小
+         * 左下角框架位置
          */
-        public void calculatePortalSize() {
-            // 如果初始位置向下是基岩等框架不能穿过的方块，直接失败
-            if (downDir == Direction.DOWN && corner.getY() <= world.getBottomY()) {
-                Blasphemy.LOGGER.info("传送门计算：初始位置在世界底部，无法形成框架");
-                foundPortal = false;
-                return;
-            }
-
-            // 计算宽度
-            width = 0;
-            while (width < MAX_PORTAL_WIDTH && isValidFrameBlock(world, corner.offset(rightDir, width + 1))) {
-                width++;
-            }
-
-            if (width < MIN_PORTAL_WIDTH - 1) { // 最小宽度
-                Blasphemy.LOGGER.info("传送门计算：宽度太小，宽度={}", width + 1);
-                foundPortal = false;
-                return;
-            }
-
-            // 计算高度
-            height = 0;
-            while (height < MAX_PORTAL_HEIGHT && isValidFrameBlock(world, corner.offset(downDir, height + 1))) {
-                height++;
-            }
-
-            if (height < MIN_PORTAL_HEIGHT - 1) { // 最小高度
-                Blasphemy.LOGGER.info("传送门计算：高度太小，高度={}", height + 1);
-                foundPortal = false;
-                return;
-            }
-
-            Blasphemy.LOGGER.info("传送门计算：初始大小 {}x{}", width + 1, height + 1);
-
-            // 收集帧方块并验证
-            if (!collectFrameBlocks()) {
-                Blasphemy.LOGGER.info("传送门计算：收集框架方块失败");
-                foundPortal = false;
-                return;
-            }
-
-            // 验证内部空间
-            if (!validateInnerSpace()) {
-                Blasphemy.LOGGER.info("传送门计算：内部空间验证失败");
-                foundPortal = false;
-                return;
-            }
-
-            // 传送门大小正确
-            width += 1; // 转换为实际宽度
-            height += 1; // 转换为实际高度
-            foundPortal = true;
-
-            Blasphemy.LOGGER.info("传送门计算：成功，大小={}x{}", width, height);
+        public BlockPos getBottomLeft() {
+            return BlockPos.fromLong(origin);
         }
 
         /**
-         * 收集框架方块
+         * 框架方块数量
          */
-        private boolean collectFrameBlocks() {
-            frameBlocks.clear();
-
-            // 检查四个角落
-            BlockPos tlCorner = corner;
-            BlockPos trCorner = corner.offset(rightDir, width);
-            BlockPos blCorner = corner.offset(downDir, height);
-            BlockPos brCorner = corner.offset(rightDir, width).offset(downDir, height);
-
-            // 所有角落必须是有效框架方块
-            if (!isValidFrameBlock(world, tlCorner)) {
-                Blasphemy.LOGGER.info("传送门计算：左上角框架缺失");
-                return false;
-            }
-            frameBlocks.add(tlCorner);
-
-            if (!isValidFrameBlock(world, trCorner)) {
-                Blasphemy.LOGGER.info("传送门计算：右上角框架缺失");
-                return false;
-            }
-            frameBlocks.add(trCorner);
-
-            if (!isValidFrameBlock(world, blCorner)) {
-                Blasphemy.LOGGER.info("传送门计算：左下角框架缺失");
-                return false;
-            }
-            frameBlocks.add(blCorner);
-
-            if (!isValidFrameBlock(world, brCorner)) {
-                Blasphemy.LOGGER.info("传送门计算：右下角框架缺失");
-                return false;
-            }
-            frameBlocks.add(brCorner);
-
-            // 处理底部边缘（除角落外）
-            for (int w = 1; w < width; w++) {
-                BlockPos bottomPos = corner.offset(rightDir, w).offset(downDir, height);
-                if (!isValidFrameBlock(world, bottomPos)) {
-                    Blasphemy.LOGGER.info("传送门计算：底部框架缺失 在 {}", bottomPos);
-                    return false;
-                }
-                frameBlocks.add(bottomPos);
-            }
+        public int getFrameBlockCount() {
+            return 2 * (width + height) - 4;
+        }
 
-            // 处理顶部边缘（除角落外）
-            for (int w = 1; w < width; w++) {
-                BlockPos topPos = corner.offset(rightDir, w);
-                if (!isValidFrameBlock(world, topPos)) {
-                    Blasphemy.LOGGER.info("传送门计算：顶部框架缺失 在 {}", topPos);
-                    return false;
-                }
-                frameBlocks.add(topPos);
+        /**
+         * 遍历框架上的全部位置：先底边和顶边，再左右两边
+         */
+        public void forEachFrame(LongConsumer consumer) {
+            int x = BlockPos.unpackLongX(origin);
+            int y = BlockPos.unpackLongY(origin);
+            int z = BlockPos.unpackLongZ(origin);
+            int stepX = axis == Direction.Axis.X ? 1 : 0;
+            int stepZ = axis == Direction.Axis.Z ? 1 : 0;
+            for (int u = 0; u < width; u++) {
+                consumer.accept(BlockPos.asLong(x + stepX * u, y, z + stepZ * u));
+                consumer.accept(BlockPos.asLong(x + stepX * u, y + height - 1, z + stepZ * u));
             }
-
-            // 处理左边边缘（除角落外）
-            for (int h = 1; h < height; h++) {
-                BlockPos leftPos = corner.offset(downDir, h);
-                if (!isValidFrameBlock(world, leftPos)) {
-                    Blasphemy.LOGGER.info("传送门计算：左边框架缺失 在 {}", leftPos);
-                    return false;
-                }
-                frameBlocks.add(leftPos);
+            for (int v = 1; v < height - 1; v++) {
+                consumer.accept(BlockPos.asLong(x, y + v, z));
+                consumer.accept(BlockPos.asLong(x + stepX * (width - 1), y + v, z + stepZ * (width - 1)));
             }
-
-            // 处理右边边缘（除角落外）
-            for (int h = 1; h < height; h++) {
-                BlockPos rightPos = corner.offset(rightDir, width).offset(downDir, h);
-                if (!isValidFrameBlock(world, rightPos)) {
-                    Blasphemy.LOGGER.info("传送门计算：右边框架缺失 在 {}", rightPos);
-                    return false;
-                }
-                frameBlocks.add(rightPos);
-            }
-
-            Blasphemy.LOGGER.info("传送门计算：框架方块总数={}", frameBlocks.size());
-            return true; // 所有边缘检查通过
         }
 
         /**
-         * 验证内部空间
+         * 逐行遍历框架内部的全部位置
          */
-        private boolean validateInnerSpace() {
-            // 检查内部是否全是空气
-            boolean allAir = true;
-            for (int h = 1; h < height; h++) {
-                for (int w = 1; w < width; w++) {
-                    BlockPos innerPos = corner.offset(rightDir, w).offset(downDir, h);
-                    if (!world.getBlockState(innerPos).isAir()) {
-                        Blasphemy.LOGGER.info("传送门计算：内部空间被占用 在 {}", innerPos);
-                        allAir = false;
-                        break;
-                    }
+        public void forEachInterior(LongConsumer consumer) {
+            int x = BlockPos.unpackLongX(origin);
+            int y = BlockPos.unpackLongY(origin);
+            int z = BlockPos.unpackLongZ(origin);
+            int stepX = axis == Direction.Axis.X ? 1 : 0;
+            int stepZ = axis == Direction.Axis.Z ? 1 : 0;
+            for (int v = 1; v < height - 1; v++) {
+                for (int u = 1; u < width - 1; u++) {
+                    consumer.accept(BlockPos.asLong(x + stepX * u, y + v, z + stepZ * u));
                 }
-                if (!allAir)
-                    break;
             }
+        }
 
-            if (!allAir) {
-                Blasphemy.LOGGER.info("传送门计算：内部空间检查失败，包含非空气方块");
+        /**
+         * 位置是否在传送门平面内（包括框架）
+         */
+        public boolean contains(BlockPos pos) {
+            int x = BlockPos.unpackLongX(origin);
+            int y = BlockPos.unpackLongY(origin);
+            int z = BlockPos.unpackLongZ(origin);
+            if (pos.getY() < y || pos.getY() >= y + height) {
                 return false;
             }
+            if (axis == Direction.Axis.X) {
+                return pos.getZ() == z && pos.getX() >= x && pos.getX() < x + width;
+            }
+            return pos.getX() == x && pos.getZ() >= z && pos.getZ() < z + width;
+        }
 
-            // 确保内部空间足够大
-            int innerWidth = width - 1;
-            int innerHeight = height - 1;
-            if (innerWidth < 2 || innerHeight < 3) {
-                Blasphemy.LOGGER.info("传送门计算：内部空间太小, {}x{}", innerWidth, innerHeight);
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PortalFrameResult other)) {
                 return false;
             }
-
-            Blasphemy.LOGGER.info("传送门计算：内部空间检查通过, 大小={}x{}", innerWidth, innerHeight);
-            return true;
+            return origin == other.origin && axis == other.axis && width == other.width && height == other.height;
         }
 
-        /**
-         * 传送门大小是否有效
-         */
-        public boolean isValid() {
-            return foundPortal &&
-                    width >= MIN_PORTAL_WIDTH &&
-                    height >= MIN_PORTAL_HEIGHT &&
-                    width <= MAX_PORTAL_WIDTH &&
-                    height <= MAX_PORTAL_HEIGHT;
+        @Override
+        public int hashCode() {
+            return Long.hashCode(origin) * 31 + axis.ordinal();
         }
-    }
-
-    /**
-     * 创建传送门
-     */
-    public static void createPortal(World world, PortalFrameResult result) {
-        if (world.isClient)
-            return;
-
-        Blasphemy.LOGGER.info("创建传送门：{}x{}，方向：{}，位置：{}",
-                result.width, result.height, result.direction, result.bottomLeft);
 
-        Direction.Axis axis = result.direction.getAxis();
-
-        // 修正：从左下角往内一格开始，确保不会替换框架方块
-        BlockPos start;
-        if (axis == Direction.Axis.X) {
-            // 东西方向的传送门
-            start = result.bottomLeft.offset(Direction.EAST, 1).offset(Direction.UP, 1);
-        } else {
-            // 南北方向的传送门
-            start = result.bottomLeft.offset(Direction.SOUTH, 1).offset(Direction.UP, 1);
+        @Override
+        public String toString() {
+            return width + "x" + height + " " + axis + " " + getBottomLeft().toShortString();
         }
-
-        int innerWidth = result.width - 2; // 内部宽度
-        int innerHeight = result.height - 2; // 内部高度
-
-        Blasphemy.LOGGER.info("传送门内部空间：{}x{}, 起始位置：{}", innerWidth, innerHeight, start);
-
-        for (int y = 0; y < innerHeight; y++) {
-            for (int x = 0; x < innerWidth; x++) {
-                BlockPos portalPos;
-
-                if (axis == Direction.Axis.X) {
-                    // 东西方向的传送门
-                    portalPos = start.offset(Direction.EAST, x).offset(Direction.UP, y);
-                } else {
-                    // 南北方向的传送门
-                    portalPos = start.offset(Direction.SOUTH, x).offset(Direction.UP, y);
-                }
-
-                // 检查是否会覆盖框架方块
-                if (result.frameBlocks.contains(portalPos)) {
-                    Blasphemy.LOGGER.warn("尝试将传送门方块放置在框架位置：{}，已跳过", portalPos);
-                    continue;
-                }
-
-                BlockState portalState = Blocks.NETHER_PORTAL.getDefaultState().with(NetherPortalBlock.AXIS, axis);
-                world.setBlockState(portalPos, portalState, Block.NOTIFY_ALL);
-
-                Blasphemy.LOGGER.info("放置传送门方块：{}", portalPos);
-            }
-        }
-
-        Blasphemy.LOGGER.info("传送门创建完成");
-    }
-
-    /**
-     * 传送门框架结果类
-     * 存储验证成功的传送门框架信息
-     */
-    public static class PortalFrameResult {
-        public int width; // 框架宽度
-        public int height; // 框架高度
-        public Direction direction; // 框架方向
-        public BlockPos bottomLeft; // 左下角位置
-        public Set<BlockPos> frameBlocks = new HashSet<>(); // 框架方块位置
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,281 @@
+package com.blasphemy.portal;
+
+import com.blasphemy.Blasphemy;
+import com.blasphemy.portal.PortalFrameValidator.PortalFrameResult;
+import com.blasphemy.util.DebugTrace;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtList;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.Direction;
+import net.minecraft.world.PersistentState;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 自定义传送门索引
+ * 记录每个世界中已点燃的自定义传送门，按区块分桶，查询为 O(1)。
+ * 数据按区域（32x32 区块）拆分为独立的 PersistentState，只在首次访问该区域时加载，
+ * 随世界一起保存，重启后仍然有效。
+ * 记录直接使用不可变的 PortalFrameResult，每个传送门只保存位置、轴向和尺寸。
+ * 传送门方块以任何方式消失（玩家破坏、爆炸、活塞、/setblock 等）时由 onBlockChanged 删除记录；
+ * 查询时也会复核传送门内部，顺带清理此前遗留的失效记录。
+ */
+public class PortalIndex {
+
+    // 区域大小为 2^5 = 32 个区块
+    private static final int REGION_SHIFT = 5;
+
+    // 已加载的区域，按世界分组
+    private static final Map<RegistryKey<World>, Long2ObjectMap<RegionState>> LOADED = new HashMap<>();
+
+    /**
+     * 初始化索引
+     * 服务器停止时丢弃已加载区域的引用，数据由世界自身负责保存
+     */
+    public static void init() {
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> LOADED.clear());
+    }
+
+    /**
+     * 记录一个新创建的传送门
+     */
+    public static void add(ServerWorld world, PortalFrameResult entry) {
+        forEachChunk(entry, (chunkX, chunkZ) -> getRegion(world, chunkX, chunkZ).addToChunk(chunkX, chunkZ, entry));
+        DebugTrace.trace(DebugTrace.Subsystem.PORTAL, "记录传送门：{}", entry);
+    }
+
+    /**
+     * 移除一个传送门记录
+     */
+    public static void remove(ServerWorld world, PortalFrameResult entry) {
+        forEachChunk(entry, (chunkX, chunkZ) -> getRegion(world, chunkX, chunkZ).removeFromChunk(chunkX, chunkZ, entry));
+    }
+
+    /**
+     * 方块变化时调用，传送门方块变为其他方块后删除所属传送门的记录
+     */
+    public static void onBlockChanged(ServerWorld world, BlockPos pos, BlockState oldState, BlockState newState) {
+        if (!oldState.isOf(Blocks.NETHER_PORTAL) || newState.isOf(Blocks.NETHER_PORTAL)) {
+            return;
+        }
+        PortalFrameResult entry = lookup(world, pos);
+        if (entry != null) {
+            remove(world, entry);
+            DebugTrace.trace(DebugTrace.Subsystem.PORTAL, "传送门方块被移除，删除记录：{}", entry);
+        }
+    }
+
+    /**
+     * 查找包含指定位置（框架或内部）的传送门
+     * 内部已经没有传送门方块的记录会被删除
+     *
+     * @return 找到的传送门记录，没有则返回null
+     */
+    @Nullable
+    public static PortalFrameResult find(ServerWorld world, BlockPos pos) {
+        PortalFrameResult entry = lookup(world, pos);
+        if (entry != null && !isIntact(world, entry)) {
+            remove(world, entry);
+            DebugTrace.trace(DebugTrace.Subsystem.PORTAL, "传送门已不存在，删除记录：{}", entry);
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * 获取与指定区块相交的全部传送门
+     * 内部已经没有传送门方块的记录会被删除
+     */
+    public static List<PortalFrameResult> getInChunk(ServerWorld world, int chunkX, int chunkZ) {
+        List<PortalFrameResult> entries = getRegion(world, chunkX, chunkZ).getChunk(chunkX, chunkZ);
+        List<PortalFrameResult> stale = null;
+        for (PortalFrameResult entry : entries) {
+            if (!isIntact(world, entry)) {
+                if (stale == null) {
+                    stale = new ArrayList<>(1);
+                }
+                stale.add(entry);
+            }
+        }
+        if (stale != null) {
+            for (PortalFrameResult entry : stale) {
+                remove(world, entry);
+                DebugTrace.trace(DebugTrace.Subsystem.PORTAL, "传送门已不存在，删除记录：{}", entry);
+            }
+            entries = getRegion(world, chunkX, chunkZ).getChunk(chunkX, chunkZ);
+        }
+        return Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * 不做复核的查找
+     */
+    @Nullable
+    private static PortalFrameResult lookup(ServerWorld world, BlockPos pos) {
+        int chunkX = pos.getX() >> 4;
+        int chunkZ = pos.getZ() >> 4;
+        for (PortalFrameResult entry : getRegion(world, chunkX, chunkZ).getChunk(chunkX, chunkZ)) {
+            if (entry.contains(pos)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 传送门内部左下角是否仍是传送门方块
+     * 该位置所在区块未加载时无法判断，视为仍然存在
+     */
+    private static boolean isIntact(ServerWorld world, PortalFrameResult entry) {
+        int stepX = entry.axis == Direction.Axis.X ? 1 : 0;
+        int stepZ = entry.axis == Direction.Axis.Z ? 1 : 0;
+        int x = BlockPos.unpackLongX(entry.origin) + stepX;
+        int y = BlockPos.unpackLongY(entry.origin) + 1;
+        int z = BlockPos.unpackLongZ(entry.origin) + stepZ;
+        if (!world.isChunkLoaded(x >> 4, z >> 4)) {
+            return true;
+        }
+        return world.getBlockState(new BlockPos(x, y, z)).isOf(Blocks.NETHER_PORTAL);
+    }
+
+    /**
+     * 获取区块所在区域的索引数据，首次访问时从存档加载
+     */
+    private static RegionState getRegion(ServerWorld world, int chunkX, int chunkZ) {
+        int regionX = chunkX >> REGION_SHIFT;
+        int regionZ = chunkZ >> REGION_SHIFT;
+        Long2ObjectMap<RegionState> regions = LOADED.computeIfAbsent(world.getRegistryKey(),
+                key -> new Long2ObjectOpenHashMap<>());
+        long regionKey = ChunkPos.toLong(regionX, regionZ);
+        RegionState region = regions.get(regionKey);
+        if (region == null) {
+            region = world.getPersistentStateManager().getOrCreate(
+                    nbt -> RegionState.fromNbt(nbt, regionX, regionZ),
+                    RegionState::new,
+                    Blasphemy.MOD_ID + "_portals_" + regionX + "_" + regionZ);
+            regions.put(regionKey, region);
+        }
+        return region;
+    }
+
+    /**
+     * 遍历传送门覆盖的所有区块
+     */
+    private static void forEachChunk(PortalFrameResult entry, ChunkConsumer consumer) {
+        BlockPos origin = BlockPos.fromLong(entry.origin);
+        int stepX = entry.axis == Direction.Axis.X ? 1 : 0;
+        int stepZ = entry.axis == Direction.Axis.Z ? 1 : 0;
+        int minChunkX = origin.getX() >> 4;
+        int minChunkZ = origin.getZ() >> 4;
+        int maxChunkX = (origin.getX() + stepX * (entry.width - 1)) >> 4;
+        int maxChunkZ = (origin.getZ() + stepZ * (entry.width - 1)) >> 4;
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                consumer.accept(chunkX, chunkZ);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkConsumer {
+        void accept(int chunkX, int chunkZ);
+    }
+
+    /**
+     * 单个区域的索引数据
+     * 同一个传送门跨越区域边界时，会在每个相交的区域中各保存一份
+     */
+    private static class RegionState extends PersistentState {
+        private final Long2ObjectOpenHashMap<List<PortalFrameResult>> chunks = new Long2ObjectOpenHashMap<>();
+
+        static RegionState fromNbt(NbtCompound nbt, int regionX, int regionZ) {
+            RegionState state = new RegionState();
+            NbtList list = nbt.getList("portals", NbtElement.COMPOUND_TYPE);
+            for (int i = 0; i < list.size(); i++) {
+                NbtCompound tag = list.getCompound(i);
+                PortalFrameResult entry = new PortalFrameResult(tag.getLong("origin"),
+                        tag.getByte("axis") == 0 ? Direction.Axis.X : Direction.Axis.Z,
+                        tag.getByte("width"), tag.getByte("height"));
+                forEachChunk(entry, (chunkX, chunkZ) -> {
+                    if (chunkX >> REGION_SHIFT == regionX && chunkZ >> REGION_SHIFT == regionZ) {
+                        state.getOrCreateChunk(chunkX, chunkZ).add(entry);
+                    }
+                });
+            }
+            return state;
+        }
+
+        @Override
+        public NbtCompound writeNbt(NbtCompound nbt) {
+            // 跨越多个区块的传送门在桶中出现多次，只写出一份
+            Set<PortalFrameResult> written = new HashSet<>();
+            NbtList list = new NbtList();
+            for (List<PortalFrameResult> entries : chunks.values()) {
+                for (PortalFrameResult entry : entries) {
+                    if (!written.add(entry)) {
+                        continue;
+                    }
+                    NbtCompound tag = new NbtCompound();
+                    tag.putLong("origin", entry.origin);
+                    tag.putByte("axis", (byte) (entry.axis == Direction.Axis.X ? 0 : 1));
+                    tag.putByte("width", (byte) entry.width);
+                    tag.putByte("height", (byte) entry.height);
+                    list.add(tag);
+                }
+            }
+            nbt.put("portals", list);
+            return nbt;
+        }
+
+        List<PortalFrameResult> getChunk(int chunkX, int chunkZ) {
+            List<PortalFrameResult> entries = chunks.get(ChunkPos.toLong(chunkX, chunkZ));
+            return entries != null ? entries : Collections.emptyList();
+        }
+
+        private List<PortalFrameResult> getOrCreateChunk(int chunkX, int chunkZ) {
+            long key = ChunkPos.toLong(chunkX, chunkZ);
+            List<PortalFrameResult> entries = chunks.get(key);
+            if (entries == null) {
+                entries = new ArrayList<>(1);
+                chunks.put(key, entries);
+            }
+            return entries;
+        }
+
+        void addToChunk(int chunkX, int chunkZ, PortalFrameResult entry) {
+            List<PortalFrameResult> entries = getOrCreateChunk(chunkX, chunkZ);
+            if (!entries.contains(entry)) {
+                entries.add(entry);
+                markDirty();
+            }
+        }
+
+        void removeFromChunk(int chunkX, int chunkZ, PortalFrameResult entry) {
+            long key = ChunkPos.toLong(chunkX, chunkZ);
+            List<PortalFrameResult> entries = chunks.get(key);
+            if (entries != null && entries.remove(entry)) {
+                if (entries.isEmpty()) {
+                    chunks.remove(key);
+                }
+                markDirty();
+            }
+        }
+    }
+}
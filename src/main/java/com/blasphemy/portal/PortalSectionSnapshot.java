@@ -0,0 +1,120 @@
+package com.blasphemy.portal;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.fluid.FluidState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.BlockView;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.ChunkStatus;
+import net.minecraft.world.chunk.PalettedContainer;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * 传送门检测窗口的只读区段快照
+ * 在服务器线程上复制点击位置所在两个竖直平面涉及的全部区段（最多 45x45 的窗口），
+ * 之后可以在任意线程上读取，不再访问世界。
+ * 与 PortalBlockAccess 一样，未加载区块不会被加载，读作屏障方块。
+ */
+public class PortalSectionSnapshot implements BlockView {
+
+    // 检测器从点击位置出发，在每个方向上最多读取 22 格
+    private static final int REACH = Math.max(PortalFrameValidator.MAX_PORTAL_WIDTH,
+            PortalFrameValidator.MAX_PORTAL_HEIGHT) - 1;
+
+    private static final BlockState UNLOADED = Blocks.BARRIER.getDefaultState();
+    private static final BlockState OUTSIDE = Blocks.VOID_AIR.getDefaultState();
+
+    private final Long2ObjectOpenHashMap<PalettedContainer<BlockState>> sections = new Long2ObjectOpenHashMap<>();
+    private final int bottomY;
+    private final int height;
+    // 捕获时是否有区块未加载
+    private boolean missingChunk;
+
+    private PortalSectionSnapshot(int bottomY, int height) {
+        this.bottomY = bottomY;
+        this.height = height;
+    }
+
+    /**
+     * 在服务器线程上捕获以指定位置为中心的检测窗口
+     */
+    public static PortalSectionSnapshot capture(World world, BlockPos origin) {
+        PortalSectionSnapshot snapshot = new PortalSectionSnapshot(world.getBottomY(), world.getHeight());
+        int minSectionY = Math.max(origin.getY() - REACH, world.getBottomY()) >> 4;
+        int maxSectionY = Math.min(origin.getY() + REACH, world.getTopY() - 1) >> 4;
+        int chunkX = origin.getX() >> 4;
+        int chunkZ = origin.getZ() >> 4;
+
+        // X轴平面
+        for (int cx = (origin.getX() - REACH) >> 4; cx <= (origin.getX() + REACH) >> 4; cx++) {
+            snapshot.copyColumn(world, cx, chunkZ, minSectionY, maxSectionY);
+        }
+        // Z轴平面，与X轴平面共用点击位置所在的区块
+        for (int cz = (origin.getZ() - REACH) >> 4; cz <= (origin.getZ() + REACH) >> 4; cz++) {
+            if (cz != chunkZ) {
+                snapshot.copyColumn(world, chunkX, cz, minSectionY, maxSectionY);
+            }
+        }
+        return snapshot;
+    }
+
+    private void copyColumn(World world, int chunkX, int chunkZ, int minSectionY, int maxSectionY) {
+        Chunk chunk = world.getChunk(chunkX, chunkZ, ChunkStatus.FULL, false);
+        if (chunk == null) {
+            missingChunk = true;
+            return;
+        }
+        for (int sectionY = minSectionY; sectionY <= maxSectionY; sectionY++) {
+            PalettedContainer<BlockState> states = chunk.getSection(world.sectionCoordToIndex(sectionY))
+                    .getBlockStateContainer();
+            sections.put(ChunkSectionPos.asLong(chunkX, sectionY, chunkZ), states.copy());
+        }
+    }
+
+    /**
+     * 捕获的窗口内是否有区块未加载
+     */
+    public boolean hasMissingChunk() {
+        return missingChunk;
+    }
+
+    @Override
+    public BlockState getBlockState(BlockPos pos) {
+        int y = pos.getY();
+        if (y < bottomY || y >= bottomY + height) {
+            return OUTSIDE;
+        }
+        PalettedContainer<BlockState> states = sections.get(
+                ChunkSectionPos.asLong(pos.getX() >> 4, y >> 4, pos.getZ() >> 4));
+        if (states == null) {
+            return UNLOADED;
+        }
+        return states.get(pos.getX() & 15, y & 15, pos.getZ() & 15);
+    }
+
+    @Nullable
+    @Override
+    public BlockEntity getBlockEntity(BlockPos pos) {
+        return null;
+    }
+
+    @Override
+    public FluidState getFluidState(BlockPos pos) {
+        return getBlockState(pos).getFluidState();
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public int getBottomY() {
+        return bottomY;
+    }
+}
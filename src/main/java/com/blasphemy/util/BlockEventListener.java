@@ -1,13 +1,12 @@
 package com.blasphemy.util;
 
 import com.blasphemy.Blasphemy;
+import com.blasphemy.portal.PortalCollapser;
 import com.blasphemy.portal.PortalFrameValidator;
 import net.fabricmc.fabric.api.event.player.PlayerBlockBreakEvents;
-import net.minecraft.block.Block;
-import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
-import net.minecraft.util.math.BlockPos;
-import net.minecraft.world.World;
+import net.minecraft.registry.Registries;
+import net.minecraft.server.world.ServerWorld;
 
 /**
  * 监听方块事件，用于处理与方块相关的游戏逻辑
@@ -26,45 +25,25 @@ public class BlockEventListener {
      */
     private static void registerBlockBreakEvent() {
         PlayerBlockBreakEvents.AFTER.register((world, player, pos, state, blockEntity) -> {
-            // 如果破坏的是传送门框架方块，清除周围的传送门方块
-            if (PortalFrameValidator.isValidFrameBlock(world, pos)) {
-                Blasphemy.LOGGER.info("玩家 {} 破坏了传送门框架方块 {} 在 {}", 
-                    player.getName().getString(), state.getBlock().getName().getString(), pos);
-                cleanupPortalBlocks(world, pos);
+            // 事件触发时方块已被移除，必须使用破坏前的方块状态判断
+            boolean isFrame = PortalFrameValidator.isValidFrameBlock(state);
+            boolean isPortal = state.getBlock() == Blocks.NETHER_PORTAL;
+            if (!isFrame && !isPortal) {
+                return;
             }
-            
-            // 如果破坏的是传送门方块，清除缓存
-            if (state.getBlock() == Blocks.NETHER_PORTAL) {
-                Blasphemy.LOGGER.info("玩家 {} 破坏了传送门方块在 {}", 
-                    player.getName().getString(), pos);
-                cleanupPortalBlocks(world, pos);
+
+            if (DebugTrace.isEnabled(DebugTrace.Subsystem.BLOCK)) {
+                DebugTrace.trace(DebugTrace.Subsystem.BLOCK, "玩家 {} 破坏了{} {} 在 {}",
+                        player.getName().getString(), isFrame ? "传送门框架方块" : "传送门方块",
+                        Registries.BLOCK.getId(state.getBlock()), pos);
             }
-        });
-    }
-    
-    /**
-     * 清理周围的传送门方块
-     */
-    private static void cleanupPortalBlocks(World world, BlockPos pos) {
-        Blasphemy.LOGGER.debug("开始清理传送门方块，中心位置：{}", pos);
-        int count = 0;
-        
-        // 清除周围的传送门方块
-        for (int x = -5; x <= 5; x++) {
-            for (int y = -5; y <= 5; y++) {
-                for (int z = -5; z <= 5; z++) {
-                    BlockPos checkPos = pos.add(x, y, z);
-                    BlockState checkState = world.getBlockState(checkPos);
-                    if (checkState.getBlock() == Blocks.NETHER_PORTAL) {
-                        world.setBlockState(checkPos, Blocks.AIR.getDefaultState(), Block.NOTIFY_ALL);
-                        count++;
-                    }
-                }
+
+            if (!(world instanceof ServerWorld serverWorld)) {
+                return;
             }
-        }
-        
-        if (count > 0) {
-            Blasphemy.LOGGER.info("清理了 {} 个传送门方块", count);
-        }
+
+            // 只坍塌与被破坏方块相连的传送门平面，索引记录在传送门方块被移除时由 PortalIndex 删除
+            PortalCollapser.collapse(serverWorld, pos, state);
+        });
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,162 @@
+package com.blasphemy.util;
+
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import net.fabricmc.fabric.api.entity.event.v1.ServerPlayerEvents;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.Identifier;
+
+/**
+ * 技能冷却服务
+ * 按玩家和技能ID记录冷却，时间统一使用服务器刻，只在服务器线程上读写。
+ * 冷却数据挂在玩家实体上（见 ServerPlayerEntityMixin），玩家断开连接后随实体一起释放，
+ * 不需要全局表；保存玩家数据时以剩余刻数写入NBT，重新登录或服务器重启后继续计时。
+ */
+public class CooldownService {
+
+    // 玩家NBT中的冷却数据键
+    private static final String NBT_KEY = "BlasphemyCooldowns";
+
+    /**
+     * 注册重生时的数据复制
+     * 重生会创建新的玩家实体，冷却不应因死亡而重置
+     */
+    public static void init() {
+        ServerPlayerEvents.COPY_FROM.register((oldPlayer, newPlayer, alive) ->
+                store(newPlayer).copyFrom(store(oldPlayer)));
+    }
+
+    /**
+     * 剩余冷却刻数，不在冷却中时返回0
+     */
+    public static long getRemainingTicks(ServerPlayerEntity player, Identifier ability) {
+        return store(player).remaining(ability, now(player));
+    }
+
+    /**
+     * 尝试开始冷却
+     *
+     * @param cooldownTicks 冷却刻数
+     * @return 成功开始时返回0，仍在冷却中时返回剩余刻数且不修改冷却
+     */
+    public static long tryStart(ServerPlayerEntity player, Identifier ability, int cooldownTicks) {
+        Store store = store(player);
+        long now = now(player);
+        long remaining = store.remaining(ability, now);
+        if (remaining > 0) {
+            return remaining;
+        }
+        store.start(ability, now, cooldownTicks);
+        return 0;
+    }
+
+    /**
+     * 开始冷却，覆盖尚未结束的冷却
+     * 用于需要先确认技能生效、再决定是否进入冷却的场合
+     */
+    public static void start(ServerPlayerEntity player, Identifier ability, int cooldownTicks) {
+        store(player).start(ability, now(player), cooldownTicks);
+    }
+
+    /**
+     * 清除玩家的某项冷却
+     */
+    public static void reset(ServerPlayerEntity player, Identifier ability) {
+        store(player).expiries.removeLong(ability);
+    }
+
+    /**
+     * 写入玩家NBT，只保存尚未结束的冷却
+     */
+    public static void writeNbt(ServerPlayerEntity player, NbtCompound nbt) {
+        Store store = store(player);
+        long now = now(player);
+        store.prune(now);
+        if (store.expiries.isEmpty()) {
+            return;
+        }
+
+        NbtCompound cooldowns = new NbtCompound();
+        for (Object2LongMap.Entry<Identifier> entry : store.expiries.object2LongEntrySet()) {
+            cooldowns.putLong(entry.getKey().toString(), entry.getLongValue() - now);
+        }
+        nbt.put(NBT_KEY, cooldowns);
+    }
+
+    /**
+     * 从玩家NBT读取冷却，剩余刻数换算为当前服务器刻
+     */
+    public static void readNbt(ServerPlayerEntity player, NbtCompound nbt) {
+        if (!nbt.contains(NBT_KEY, NbtCompound.COMPOUND_TYPE)) {
+            return;
+        }
+
+        Store store = store(player);
+        long now = now(player);
+        NbtCompound cooldowns = nbt.getCompound(NBT_KEY);
+        for (String key : cooldowns.getKeys()) {
+            Identifier ability = Identifier.tryParse(key);
+            long remaining = cooldowns.getLong(key);
+            if (ability != null && remaining > 0) {
+                store.expiries.put(ability, now + remaining);
+            }
+        }
+    }
+
+    private static long now(ServerPlayerEntity player) {
+        return player.getServer().getTicks();
+    }
+
+    private static Store store(ServerPlayerEntity player) {
+        return ((Holder) player).blasphemy$getCooldowns();
+    }
+
+    /**
+     * 持有冷却数据的玩家实体，由 Mixin 实现
+     */
+    public interface Holder {
+        Store blasphemy$getCooldowns();
+    }
+
+    /**
+     * 单个玩家的冷却数据：技能ID到冷却结束时的服务器刻
+     */
+    public static final class Store {
+        private final Object2LongOpenHashMap<Identifier> expiries = new Object2LongOpenHashMap<>();
+
+        long remaining(Identifier ability, long now) {
+            long expiry = expiries.getLong(ability);
+            if (expiry == 0) {
+                return 0;
+            }
+            if (expiry <= now) {
+                // 顺便移除已结束的冷却，数据量只与正在冷却的技能数有关
+                expiries.removeLong(ability);
+                return 0;
+            }
+            return expiry - now;
+        }
+
+        void start(Identifier ability, long now, int cooldownTicks) {
+            if (cooldownTicks > 0) {
+                expiries.put(ability, now + cooldownTicks);
+            }
+        }
+
+        void prune(long now) {
+            ObjectIterator<Object2LongMap.Entry<Identifier>> iterator = expiries.object2LongEntrySet().fastIterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().getLongValue() <= now) {
+                    iterator.remove();
+                }
+            }
+        }
+
+        void copyFrom(Store other) {
+            expiries.clear();
+            expiries.putAll(other.expiries);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.blasphemy.util;
+
+import com.blasphemy.items.SeraphimSword;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
+import net.minecraft.entity.player.PlayerInventory;
+import net.minecraft.item.ItemStack;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 白天自动修复
+ * 炽天使在白天会缓慢恢复耐久。每秒批量处理一次在线玩家，
+ * 玩家所在世界为白天且背包中有炽天使时累计修复进度，
+ * 每满 TICKS_PER_POINT 刻为每把炽天使恢复 1 点耐久，平均速率与原先每刻 1% 几率相同且结果确定。
+ * 只在服务器线程上使用。
+ */
+public class DaylightRepairService {
+
+    // 批量处理间隔(刻)
+    static final int INTERVAL_TICKS = 20;
+    // 每恢复 1 点耐久所需的白天时长(刻)
+    static final int TICKS_PER_POINT = 100;
+
+    private static final Map<UUID, Tracked> PLAYERS = new HashMap<>();
+
+    /**
+     * 注册刻事件和玩家断开事件
+     */
+    public static void init() {
+        ServerTickEvents.END_SERVER_TICK.register(server -> {
+            if (server.getTicks() % INTERVAL_TICKS == 0) {
+                repairAll(server);
+            }
+        });
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> PLAYERS.remove(handler.player.getUuid()));
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> PLAYERS.clear());
+    }
+
+    private static void repairAll(MinecraftServer server) {
+        for (ServerPlayerEntity player : server.getPlayerManager().getPlayerList()) {
+            if (!player.getWorld().isDay()) {
+                continue;
+            }
+            // 拾取和 /give 等途径放入的物品不会触发背包变化计数，每次都重新查找
+            PlayerInventory inventory = player.getInventory();
+            if (!containsSword(inventory)) {
+                continue;
+            }
+
+            Tracked tracked = PLAYERS.computeIfAbsent(player.getUuid(), uuid -> new Tracked());
+            tracked.progress += INTERVAL_TICKS;
+            int points = tracked.progress / TICKS_PER_POINT;
+            if (points > 0) {
+                tracked.progress -= points * TICKS_PER_POINT;
+                repair(inventory, points);
+            }
+        }
+    }
+
+    private static boolean containsSword(PlayerInventory inventory) {
+        for (int i = 0; i < inventory.size(); i++) {
+            if (inventory.getStack(i).getItem() instanceof SeraphimSword) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void repair(PlayerInventory inventory, int points) {
+        for (int i = 0; i < inventory.size(); i++) {
+            ItemStack stack = inventory.getStack(i);
+            if (stack.getItem() instanceof SeraphimSword && stack.getDamage() > 0) {
+                stack.setDamage(Math.max(0, stack.getDamage() - points));
+            }
+        }
+    }
+
+    /**
+     * 单个玩家的修复状态
+     */
+    private static final class Tracked {
+        // 累计的白天刻数，不足一点耐久的部分留到下次
+        private int progress;
+    }
+}
@@ -0,0 +1,160 @@
+package com.blasphemy.util;
+
+import com.blasphemy.Blasphemy;
+import com.blasphemy.config.ConfigSnapshot;
+import com.blasphemy.config.ModConfig;
+import org.slf4j.helpers.MessageFormatter;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 诊断追踪
+ * 按子系统开关的追踪记录，只有子系统开启时才会格式化消息，
+ * 记录写入固定大小的内存环形缓冲区，不写日志文件，管理员可通过命令导出。
+ * 热路径调用前应先用 isEnabled 判断，避免参数求值的开销。
+ */
+public class DebugTrace {
+
+    /**
+     * 可追踪的子系统
+     */
+    public enum Subsystem {
+        PORTAL,     // 传送门框架检测与创建
+        IGNITION,   // 点火物品与点火事件分发
+        BLOCK       // 方块破坏事件
+    }
+
+    private static final int DEFAULT_CAPACITY = 512;
+    // 与服务器日志相同的时间格式，便于对照
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss.SSS", Locale.ROOT);
+
+    // 每个子系统一位，读取时只需一次 volatile 读
+    private static volatile int enabledMask;
+
+    private static String[] buffer = new String[DEFAULT_CAPACITY];
+    private static int next;
+    private static long total;
+
+    /**
+     * 根据配置初始化追踪开关
+     */
+    public static void init() {
+        applyConfig();
+        ModConfig.addReloadListener(DebugTrace::applyConfig);
+    }
+
+    /**
+     * 从配置读取开启的子系统和缓冲区大小
+     */
+    private static void applyConfig() {
+        ConfigSnapshot.Debug debug = ModConfig.snapshot().debug;
+        int mask = 0;
+        for (String name : debug.traceSubsystems) {
+            Subsystem subsystem = parse(name);
+            if (subsystem == null) {
+                Blasphemy.LOGGER.warn("未知的追踪子系统：{}", name);
+                continue;
+            }
+            mask |= 1 << subsystem.ordinal();
+        }
+        enabledMask = mask;
+        resize(debug.traceBufferSize);
+    }
+
+    /**
+     * 按名称解析子系统，不区分大小写
+     */
+    public static Subsystem parse(String name) {
+        try {
+            return Subsystem.valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 子系统是否开启
+     */
+    public static boolean isEnabled(Subsystem subsystem) {
+        return (enabledMask & (1 << subsystem.ordinal())) != 0;
+    }
+
+    /**
+     * 开启或关闭子系统
+     */
+    public static synchronized void setEnabled(Subsystem subsystem, boolean enabled) {
+        int bit = 1 << subsystem.ordinal();
+        enabledMask = enabled ? enabledMask | bit : enabledMask & ~bit;
+    }
+
+    public static void trace(Subsystem subsystem, String message) {
+        if (isEnabled(subsystem)) {
+            record(subsystem, message);
+        }
+    }
+
+    public static void trace(Subsystem subsystem, String format, Object arg) {
+        if (isEnabled(subsystem)) {
+            record(subsystem, MessageFormatter.format(format, arg).getMessage());
+        }
+    }
+
+    public static void trace(Subsystem subsystem, String format, Object arg1, Object arg2) {
+        if (isEnabled(subsystem)) {
+            record(subsystem, MessageFormatter.format(format, arg1, arg2).getMessage());
+        }
+    }
+
+    public static void trace(Subsystem subsystem, String format, Object... args) {
+        if (isEnabled(subsystem)) {
+            record(subsystem, MessageFormatter.arrayFormat(format, args).getMessage());
+        }
+    }
+
+    /**
+     * 写入环形缓冲区，满时覆盖最旧的记录
+     */
+    private static synchronized void record(Subsystem subsystem, String message) {
+        buffer[next] = LocalTime.now().format(TIME_FORMAT) + " [" + Thread.currentThread().getName() + "/"
+                + subsystem + "] " + message;
+        next = (next + 1) % buffer.length;
+        total++;
+    }
+
+    /**
+     * 导出最近的记录，从旧到新
+     */
+    public static synchronized List<String> dump(int limit) {
+        int count = (int) Math.min(Math.min(total, buffer.length), limit);
+        List<String> lines = new ArrayList<>(count);
+        int start = Math.floorMod(next - count, buffer.length);
+        for (int i = 0; i < count; i++) {
+            lines.add(buffer[(start + i) % buffer.length]);
+        }
+        return lines;
+    }
+
+    /**
+     * 清空缓冲区
+     */
+    public static synchronized void clear() {
+        buffer = new String[buffer.length];
+        next = 0;
+        total = 0;
+    }
+
+    /**
+     * 调整缓冲区大小，已有记录会被清空
+     */
+    private static synchronized void resize(int capacity) {
+        if (buffer.length != capacity) {
+            buffer = new String[capacity];
+            next = 0;
+            total = 0;
+        }
+    }
+}